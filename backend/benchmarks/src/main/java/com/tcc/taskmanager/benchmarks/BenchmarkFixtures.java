@@ -0,0 +1,110 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.Role;
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.repository.RevokedTokenRepository;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.TokenRevocationRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 🧪 Datos y componentes compartidos por los benchmarks, armados sin levantar el contexto de Spring
+ */
+public final class BenchmarkFixtures {
+
+    // Mismo formato que security.jwt.secret de application.yml; no es el secreto de ningún entorno
+    static final String JWT_SECRET = "QmVuY2htYXJrU2VjcmV0S2V5Rm9yVGFza01hbmFnZXJKbWhIb3RQYXRoc0hTNTEyMDI1";
+    static final int JWT_EXPIRATION_MS = 86_400_000;
+
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+    private static final Priority[] PRIORITIES = Priority.values();
+    private static final LocalDateTime BASE_TIME = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private BenchmarkFixtures() {}
+
+    /**
+     * JwtUtils con la configuración de producción; verifiedCacheMaxEntries = 0 desactiva la caché de verificaciones
+     */
+    public static JwtUtils jwtUtils(int verifiedCacheMaxEntries) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", JWT_EXPIRATION_MS);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", JWT_EXPIRATION_MS * 7);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxEntries", verifiedCacheMaxEntries);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    /**
+     * Registro de revocaciones con los jti dados y un repositorio vacío en lugar de revoked_tokens
+     */
+    public static TokenRevocationRegistry tokenRevocationRegistry(List<UUID> revokedTokenIds) {
+        RevokedTokenRepository emptyRepository = (RevokedTokenRepository) Proxy.newProxyInstance(
+            RevokedTokenRepository.class.getClassLoader(), new Class<?>[] {RevokedTokenRepository.class},
+            (proxy, method, args) -> List.class.equals(method.getReturnType()) ? List.of() : null);
+        TokenRevocationRegistry registry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "revokedTokenRepository", emptyRepository);
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "expectedEntries", 10_000);
+        registry.init();
+        long expiresAt = System.currentTimeMillis() + JWT_EXPIRATION_MS;
+        for (UUID tokenId : revokedTokenIds) {
+            registry.revoke(tokenId, expiresAt);
+        }
+        return registry;
+    }
+
+    public static User user() {
+        User user = new User();
+        user.setId(42L);
+        user.setUsername("ana");
+        user.setEmail("ana@example.com");
+        user.setFirstName("Ana");
+        user.setLastName("García");
+        user.setRole(Role.USER);
+        user.setTokenVersion(3L);
+        return user;
+    }
+
+    public static Task task(User user, long id) {
+        Task task = new Task("Tarea " + id, description(id), user);
+        task.setId(id);
+        task.setStatus(STATUSES[(int) (id % STATUSES.length)]);
+        task.setPriority(PRIORITIES[(int) (id % PRIORITIES.length)]);
+        task.setDueDate(BASE_TIME.plusDays(id % 30));
+        task.setCreatedAt(BASE_TIME.plusMinutes(id));
+        task.setUpdatedAt(BASE_TIME.plusMinutes(id * 2));
+        task.setVersion(id % 5);
+        task.setSyncVersion(id);
+        return task;
+    }
+
+    /**
+     * DTOs como los devuelve la proyección TASK_DTO_SELECT de TaskRepository
+     */
+    public static List<TaskDto> taskDtos(int size) {
+        List<TaskDto> tasks = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            tasks.add(new TaskDto(id, "Tarea " + id, description(id),
+                STATUSES[(int) (id % STATUSES.length)], PRIORITIES[(int) (id % PRIORITIES.length)],
+                BASE_TIME.plusDays(id % 30), BASE_TIME.plusMinutes(id), BASE_TIME.plusMinutes(id * 2), id % 5, id,
+                42L, "ana", "Ana", "García"));
+        }
+        return tasks;
+    }
+
+    private static String description(long id) {
+        return id % 3 == 0 ? null : "Descripción de la tarea " + id + " con algo de texto para serializar";
+    }
+}
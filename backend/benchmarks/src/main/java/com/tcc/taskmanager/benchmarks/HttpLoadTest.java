@@ -0,0 +1,171 @@
+package com.tcc.taskmanager.benchmarks;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 🌐 Carga HTTP de ciclo cerrado contra una instancia en marcha: N clientes concurrentes que repiten
+ * GET sobre un endpoint autenticado, cada uno enviando la siguiente petición al recibir la respuesta.
+ * Reporta throughput y percentiles de latencia. Para comparar los modos de ejecución se arranca la app
+ * con y sin el perfil virtual-threads (Java 21+, misma base de datos) y se corre con los mismos argumentos:
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.tcc.taskmanager.benchmarks.HttpLoadTest \
+ *     --clients=1000 --duration=60 --warmup=15 --path=/tasks/my --user=ana --password=secret1
+ * </pre>
+ */
+public final class HttpLoadTest {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private final HttpClient client;
+    private final HttpRequest request;
+    private final int clients;
+    private final AtomicLong errors = new AtomicLong();
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private HttpLoadTest(HttpClient client, HttpRequest request, int clients) {
+        this.client = client;
+        this.request = request;
+        this.clients = clients;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = options(args);
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080/api");
+        int clients = Integer.parseInt(options.getOrDefault("clients", "1000"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "15"));
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        String token = login(client, baseUrl, options.getOrDefault("user", "ana"),
+            options.getOrDefault("password", "secret1"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + options.getOrDefault("path", "/tasks/my")))
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        new HttpLoadTest(client, request, clients).run(warmupSeconds, durationSeconds);
+    }
+
+    private void run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+        ClientLoop[] loops = new ClientLoop[clients];
+        for (int i = 0; i < clients; i++) {
+            loops[i] = new ClientLoop();
+            loops[i].next();
+        }
+        Thread.sleep(warmupSeconds * 1000L);
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationSeconds * 1000L);
+        recording = false;
+        long elapsed = System.nanoTime() - start;
+        running = false;
+        // Deja terminar las respuestas que ya estaban registrando su latencia
+        Thread.sleep(1000);
+
+        int total = 0;
+        for (ClientLoop loop : loops) {
+            total += loop.count;
+        }
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (ClientLoop loop : loops) {
+            System.arraycopy(loop.latencies, 0, latencies, offset, loop.count);
+            offset += loop.count;
+        }
+        Arrays.sort(latencies);
+
+        System.out.printf("clients=%d duration=%ds requests=%d errors=%d%n", clients, durationSeconds, total, errors.get());
+        System.out.printf("throughput=%.1f req/s%n", total / (elapsed / 1e9));
+        System.out.printf("p50=%.1f ms p90=%.1f ms p99=%.1f ms p99.9=%.1f ms max=%.1f ms%n",
+            percentile(latencies, 0.50), percentile(latencies, 0.90), percentile(latencies, 0.99),
+            percentile(latencies, 0.999), total == 0 ? 0 : latencies[total - 1] / 1e6);
+        System.exit(0);
+    }
+
+    // Un cliente: una petición en vuelo a la vez; sus latencias solo las toca la cadena de esa petición
+    private final class ClientLoop {
+
+        private long[] latencies = new long[1024];
+        // volatile: el hilo principal lee count y, por él, las latencias escritas antes
+        private volatile int count;
+
+        void next() {
+            if (!running) {
+                return;
+            }
+            long sent = System.nanoTime();
+            CompletableFuture<HttpResponse<Void>> response =
+                client.sendAsync(request, HttpResponse.BodyHandlers.discarding());
+            response.whenComplete((result, error) -> {
+                long latency = System.nanoTime() - sent;
+                boolean ok = error == null && result.statusCode() == 200;
+                if (recording) {
+                    if (ok) {
+                        record(latency);
+                    } else {
+                        errors.incrementAndGet();
+                    }
+                }
+                next();
+            });
+        }
+
+        private void record(long latency) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count] = latency;
+            count = count + 1;
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl, String user, String password) throws Exception {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/auth/login"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(
+                "{\"emailOrUsername\":\"" + user + "\",\"password\":\"" + password + "\"}"))
+            .build();
+        HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Login fallido (" + response.statusCode() + "): " + response.body());
+        }
+        return matcher.group(1);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+
+    private static Map<String, String> options(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int separator = arg.indexOf('=');
+                options.put(arg.substring(2, separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
+    }
+}
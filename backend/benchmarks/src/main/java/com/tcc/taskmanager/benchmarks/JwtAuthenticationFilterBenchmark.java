@@ -0,0 +1,95 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.security.JwtAuthenticationFilter;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.TokenVersionRegistry;
+import com.tcc.taskmanager.security.UserPrincipal;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🛡️ JwtAuthenticationFilter completo sobre una petición simulada.
+ * stateless=false añade la carga del usuario por UserDetailsService (aquí un stub en memoria, sin base de datos).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    private boolean stateless;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = BenchmarkFixtures.jwtUtils(10_000);
+        User user = BenchmarkFixtures.user();
+        UserPrincipal principal = UserPrincipal.fromClaims(user.getId(), user.getUsername(), user.getEmail(), user.getRole(),
+            user.getTokenVersion());
+        UserDetailsService userDetailsService = username -> principal;
+
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenVersionRegistry", new TokenVersionRegistry());
+        ReflectionTestUtils.setField(filter, "tokenRevocationRegistry", BenchmarkFixtures.tokenRevocationRegistry(List.of()));
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        authorization = "Bearer " + jwtUtils.generateUserToken(user);
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = request("/tasks/my");
+        request.addHeader("Authorization", authorization);
+        return filter(request);
+    }
+
+    // Rutas públicas: shouldNotFilter las descarta antes de mirar el token
+    @Benchmark
+    public Authentication publicPathRequest() throws ServletException, IOException {
+        return filter(request("/auth/login"));
+    }
+
+    private Authentication filter(MockHttpServletRequest request) throws ServletException, IOException {
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static MockHttpServletRequest request(String servletPath) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api" + servletPath);
+        request.setContextPath("/api");
+        request.setServletPath(servletPath);
+        return request;
+    }
+}
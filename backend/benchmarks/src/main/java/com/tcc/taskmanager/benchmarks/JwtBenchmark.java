@@ -0,0 +1,68 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.JwtVerification;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔐 Emisión y verificación de access tokens (JwtUtils)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtils jwtUtils;
+    private JwtUtils uncachedJwtUtils;
+    private User user;
+    private String token;
+    private String tamperedToken;
+
+    @Setup
+    public void setup() {
+        jwtUtils = BenchmarkFixtures.jwtUtils(10_000);
+        uncachedJwtUtils = BenchmarkFixtures.jwtUtils(0);
+        user = BenchmarkFixtures.user();
+        token = jwtUtils.generateUserToken(user);
+        // Firma alterada: ejercita el rechazo por INVALID_SIGNATURE (camino con excepción de jjwt)
+        char last = token.charAt(token.length() - 1);
+        tamperedToken = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @Benchmark
+    public String generateUserToken() {
+        return jwtUtils.generateUserToken(user);
+    }
+
+    // Camino habitual: el token ya está en la caché de verificaciones
+    @Benchmark
+    public JwtVerification verifyCached() {
+        return jwtUtils.verifyAndExtract(token);
+    }
+
+    // Primera vez que se ve el token: HMAC-SHA512 + parseo de claims
+    @Benchmark
+    public JwtVerification verifyUncached() {
+        return uncachedJwtUtils.verifyAndExtract(token);
+    }
+
+    @Benchmark
+    public JwtVerification verifyInvalidSignature() {
+        return uncachedJwtUtils.verifyAndExtract(tamperedToken);
+    }
+}
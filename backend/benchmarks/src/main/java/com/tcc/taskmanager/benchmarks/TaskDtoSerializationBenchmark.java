@@ -0,0 +1,50 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📤 Serialización JSON de las respuestas de listado (List&lt;TaskDto&gt;)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskDtoSerializationBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<TaskDto> tasks;
+
+    @Setup
+    public void setup() {
+        // Mismos valores por defecto que el ObjectMapper que configura Spring Boot (JavaTimeModule, fechas ISO)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        tasks = BenchmarkFixtures.taskDtos(size);
+    }
+
+    @Benchmark
+    public byte[] writeTaskList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+}
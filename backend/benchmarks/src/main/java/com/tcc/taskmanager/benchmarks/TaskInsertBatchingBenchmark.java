@@ -0,0 +1,120 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.User;
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.tools.Server;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.H2Dialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🧱 Alta masiva de tareas con Hibernate sobre H2 (modo SQL Server) y la configuración JDBC de application.yml
+ * (batch_size 20, order_inserts). IDENTITY es el mapeo anterior: Hibernate ejecuta cada INSERT al persistir
+ * para leer el id y el batching queda desactivado. POOLED_SEQUENCE es el de Task y User: la secuencia reserva
+ * 50 ids por viaje y los INSERT salen en lotes JDBC. El resultado está en inserts por segundo.
+ * H2 corre como servidor TCP en localhost: cada ejecución paga un viaje de red, como con SQL Server
+ * (en memoria dentro del proceso ese viaje no existe y la diferencia casi desaparece).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// Hibernate y el servidor H2 tardan unos 20 s en estabilizarse
+@Warmup(iterations = 10, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class TaskInsertBatchingBenchmark {
+
+    // Una transacción por invocación, con el máximo de POST /tasks/bulk (tasks.bulk.max-items)
+    static final int TASKS_PER_TRANSACTION = 500;
+
+    @Param({"IDENTITY", "POOLED_SEQUENCE"})
+    public String idStrategy;
+
+    private Server server;
+    private HikariDataSource dataSource;
+    private SessionFactory sessionFactory;
+    private Long userId;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        server = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:tcp://localhost:" + server.getPort() + "/mem:insert-batching-" + idStrategy
+            + ";MODE=MSSQLServer;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(1);
+
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+            .applySetting(AvailableSettings.DATASOURCE, dataSource)
+            .applySetting(AvailableSettings.DIALECT, H2Dialect.class.getName())
+            .applySetting(AvailableSettings.HBM2DDL_AUTO, "create")
+            .applySetting(AvailableSettings.STATEMENT_BATCH_SIZE, 20)
+            .applySetting(AvailableSettings.ORDER_INSERTS, true)
+            .applySetting(AvailableSettings.ORDER_UPDATES, true)
+            .build();
+        MetadataSources sources = new MetadataSources(registry)
+            .addAnnotatedClass(User.class)
+            .addAnnotatedClass(Task.class);
+        if ("IDENTITY".equals(idStrategy)) {
+            sources.addResource("identity-ids-orm.xml");
+        }
+        sessionFactory = sources.buildMetadata().buildSessionFactory();
+
+        userId = sessionFactory.fromTransaction(session -> {
+            User user = new User("bench", "bench@example.com", "hash", "Bench", "User");
+            user.setCreatedAt(LocalDateTime.now());
+            session.persist(user);
+            return user.getId();
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void clearTasks() {
+        sessionFactory.inTransaction(session -> session.createMutationQuery("delete from Task").executeUpdate());
+    }
+
+    // Fuera del contexto de Spring la auditoría no asigna fechas: createdAt (NOT NULL) se pone a mano
+    @Benchmark
+    @OperationsPerInvocation(TASKS_PER_TRANSACTION)
+    public void insertTasks() {
+        sessionFactory.inTransaction(session -> {
+            User owner = session.getReference(User.class, userId);
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < TASKS_PER_TRANSACTION; i++) {
+                Task task = new Task("Tarea " + i, "Descripción de la tarea " + i, owner);
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                session.persist(task);
+            }
+        });
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sessionFactory.close();
+        dataSource.close();
+        server.stop();
+    }
+}
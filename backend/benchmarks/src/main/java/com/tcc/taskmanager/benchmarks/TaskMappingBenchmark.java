@@ -0,0 +1,40 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🔁 TaskDto.from (entidad -> DTO de las respuestas de escritura de TaskService)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMappingBenchmark {
+
+    private Task task;
+
+    @Setup
+    public void setup() {
+        task = BenchmarkFixtures.task(BenchmarkFixtures.user(), 1L);
+    }
+
+    @Benchmark
+    public TaskDto taskDtoFrom() {
+        return TaskDto.from(task);
+    }
+}
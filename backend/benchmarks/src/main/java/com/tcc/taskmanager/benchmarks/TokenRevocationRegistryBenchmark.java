@@ -0,0 +1,64 @@
+package com.tcc.taskmanager.benchmarks;
+
+import com.tcc.taskmanager.security.TokenRevocationRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 🚫 Consulta de TokenRevocationRegistry desde varios hilos, como la hace el filtro en cada petición.
+ * Con -prof gc debe reportar ~0 B/op: la consulta no asigna memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class TokenRevocationRegistryBenchmark {
+
+    @Param({"0", "10000", "100000"})
+    private int revokedTokens;
+
+    private TokenRevocationRegistry registry;
+    private UUID activeToken;
+    private UUID revokedToken;
+
+    @Setup
+    public void setup() {
+        List<UUID> revoked = new ArrayList<>(revokedTokens + 1);
+        for (int i = 0; i < revokedTokens; i++) {
+            revoked.add(UUID.randomUUID());
+        }
+        revokedToken = UUID.randomUUID();
+        revoked.add(revokedToken);
+        registry = BenchmarkFixtures.tokenRevocationRegistry(revoked);
+        activeToken = UUID.randomUUID();
+    }
+
+    // El caso de casi todas las peticiones: el filtro de Bloom lo descarta
+    @Benchmark
+    public boolean activeTokenLookup() {
+        return registry.isRevoked(activeToken);
+    }
+
+    @Benchmark
+    public boolean revokedTokenLookup() {
+        return registry.isRevoked(revokedToken);
+    }
+}
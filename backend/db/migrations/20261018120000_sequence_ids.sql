@@ -0,0 +1,82 @@
+-- ============================================================================
+-- Migra users.id y tasks.id de IDENTITY a secuencias (SQL Server)
+--
+-- Las entidades usan @SequenceGenerator con allocationSize = 50 (optimizador
+-- pooled), lo que permite a Hibernate agrupar los INSERT en lotes JDBC.
+-- SQL Server no permite quitar la propiedad IDENTITY de una columna, así que
+-- cada id se copia a una columna nueva sin IDENTITY que ocupa su lugar.
+--
+-- Ejecutar con sqlcmd / SSMS y la aplicación detenida, ANTES de desplegar la
+-- versión con secuencias. Los índices idx_tasks_* que contienen id se
+-- eliminan aquí y ddl-auto: update los vuelve a crear al arrancar.
+-- ============================================================================
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+GO
+
+-- 1. FKs que referencian users/tasks (nombres generados por Hibernate)
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql += N'ALTER TABLE ' + QUOTENAME(OBJECT_SCHEMA_NAME(fk.parent_object_id)) + N'.'
+             + QUOTENAME(OBJECT_NAME(fk.parent_object_id)) + N' DROP CONSTRAINT ' + QUOTENAME(fk.name) + N'; '
+FROM sys.foreign_keys fk
+WHERE fk.referenced_object_id IN (OBJECT_ID(N'dbo.users'), OBJECT_ID(N'dbo.tasks'));
+EXEC sp_executesql @sql;
+GO
+
+-- 2. Índices no PK de tasks que incluyen la columna id
+DECLARE @sql NVARCHAR(MAX) = N'';
+SELECT @sql += N'DROP INDEX ' + QUOTENAME(i.name) + N' ON dbo.tasks; '
+FROM sys.indexes i
+WHERE i.object_id = OBJECT_ID(N'dbo.tasks')
+  AND i.is_primary_key = 0
+  AND EXISTS (SELECT 1 FROM sys.index_columns ic
+              JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+              WHERE ic.object_id = i.object_id AND ic.index_id = i.index_id AND c.name = N'id');
+EXEC sp_executesql @sql;
+GO
+
+-- 3. users.id -> columna sin IDENTITY
+ALTER TABLE dbo.users ADD id_new BIGINT NULL;
+GO
+UPDATE dbo.users SET id_new = id;
+ALTER TABLE dbo.users ALTER COLUMN id_new BIGINT NOT NULL;
+GO
+DECLARE @pk NVARCHAR(256) = (SELECT name FROM sys.key_constraints
+                             WHERE parent_object_id = OBJECT_ID(N'dbo.users') AND type = 'PK');
+EXEC (N'ALTER TABLE dbo.users DROP CONSTRAINT ' + @pk);
+ALTER TABLE dbo.users DROP COLUMN id;
+EXEC sp_rename N'dbo.users.id_new', N'id', N'COLUMN';
+ALTER TABLE dbo.users ADD CONSTRAINT pk_users PRIMARY KEY (id);
+GO
+
+-- 4. tasks.id -> columna sin IDENTITY
+ALTER TABLE dbo.tasks ADD id_new BIGINT NULL;
+GO
+UPDATE dbo.tasks SET id_new = id;
+ALTER TABLE dbo.tasks ALTER COLUMN id_new BIGINT NOT NULL;
+GO
+DECLARE @pk NVARCHAR(256) = (SELECT name FROM sys.key_constraints
+                             WHERE parent_object_id = OBJECT_ID(N'dbo.tasks') AND type = 'PK');
+EXEC (N'ALTER TABLE dbo.tasks DROP CONSTRAINT ' + @pk);
+ALTER TABLE dbo.tasks DROP COLUMN id;
+EXEC sp_rename N'dbo.tasks.id_new', N'id', N'COLUMN';
+ALTER TABLE dbo.tasks ADD CONSTRAINT pk_tasks PRIMARY KEY (id);
+ALTER TABLE dbo.tasks ADD CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES dbo.users (id);
+GO
+
+-- 5. Secuencias: el optimizador pooled trata cada valor como el extremo alto de un bloque
+--    de 50, por eso se arranca al menos 50 por encima del id máximo existente
+DECLARE @start BIGINT = (SELECT ISNULL(MAX(id), 0) + 51 FROM dbo.users);
+EXEC (N'CREATE SEQUENCE dbo.users_seq AS BIGINT START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50');
+SET @start = (SELECT ISNULL(MAX(id), 0) + 51 FROM dbo.tasks);
+EXEC (N'CREATE SEQUENCE dbo.tasks_seq AS BIGINT START WITH ' + CAST(@start AS NVARCHAR(20)) + N' INCREMENT BY 50');
+GO
+
+-- 6. task_counters es derivable de tasks: se recrea con secuencia y se vuelve a sembrar en la primera lectura
+IF OBJECT_ID(N'dbo.task_counters', N'U') IS NOT NULL
+    DROP TABLE dbo.task_counters;
+GO
+
+COMMIT TRANSACTION;
+GO
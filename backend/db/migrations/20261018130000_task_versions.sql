@@ -0,0 +1,29 @@
+-- ============================================================================
+-- Columnas de versión para GET condicionales (SQL Server)
+--
+-- tasks.version es el @Version de Task (bloqueo optimista). ddl-auto: update
+-- intentaría añadirla como NOT NULL sin default, lo que falla con filas
+-- existentes; por eso se crea aquí con default 0.
+-- task_collection_versions guarda la versión de la colección de cada usuario
+-- (base de los ETag); las filas ausentes se crean en la primera lectura.
+--
+-- Ejecutar con sqlcmd / SSMS ANTES de desplegar la versión con ETags.
+-- ============================================================================
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+GO
+
+IF COL_LENGTH(N'dbo.tasks', N'version') IS NULL
+    ALTER TABLE dbo.tasks ADD version BIGINT NOT NULL CONSTRAINT df_tasks_version DEFAULT 0;
+GO
+
+IF OBJECT_ID(N'dbo.task_collection_versions', N'U') IS NULL
+    CREATE TABLE dbo.task_collection_versions (
+        user_id BIGINT NOT NULL CONSTRAINT pk_task_collection_versions PRIMARY KEY,
+        version BIGINT NOT NULL
+    );
+GO
+
+COMMIT TRANSACTION;
+GO
@@ -0,0 +1,13 @@
+-- ============================================================================
+-- Sincronización incremental de tareas (SQL Server)
+--
+-- GET /tasks/changes filtra por updated_at; las filas anteriores a la
+-- auditoría pueden tenerlo en NULL y no aparecerían nunca, así que se
+-- completa con created_at. El índice idx_tasks_user_updated y la tabla
+-- task_tombstones los crea ddl-auto: update al arrancar.
+--
+-- Ejecutar con sqlcmd / SSMS antes o después de desplegar; es idempotente.
+-- ============================================================================
+
+UPDATE dbo.tasks SET updated_at = created_at WHERE updated_at IS NULL;
+GO
@@ -0,0 +1,13 @@
+-- ============================================================================
+-- Versión de token por usuario (SQL Server)
+--
+-- users.token_version viaja como claim "tv" en los JWT; incrementarla revoca
+-- todos los tokens emitidos antes. ddl-auto: update intentaría añadirla como
+-- NOT NULL sin default, lo que falla con filas existentes.
+--
+-- Ejecutar con sqlcmd / SSMS ANTES de desplegar la versión con JWT stateless.
+-- ============================================================================
+
+IF COL_LENGTH(N'dbo.users', N'token_version') IS NULL
+    ALTER TABLE dbo.users ADD token_version BIGINT NOT NULL CONSTRAINT df_users_token_version DEFAULT 0;
+GO
@@ -0,0 +1,50 @@
+-- ============================================================================
+-- Restricciones únicas con nombre en users.username y users.email (SQL Server)
+--
+-- El registro ya no consulta existsByUsername / existsByEmail: inserta y
+-- traduce la violación de uk_users_username / uk_users_email al mensaje de
+-- error. Hibernate creó estas restricciones con nombres generados; aquí se
+-- renombran (o se crean si faltan) para que coincidan con la entidad.
+--
+-- Ejecutar con sqlcmd / SSMS ANTES de desplegar la versión con registro por
+-- restricciones; con ddl-auto: update se crearía un duplicado con el nombre nuevo.
+-- ============================================================================
+
+DECLARE @name SYSNAME, @qualified NVARCHAR(300);
+
+-- username
+SET @name = NULL;
+SELECT @name = kc.name
+FROM sys.key_constraints kc
+JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+WHERE kc.parent_object_id = OBJECT_ID(N'dbo.users') AND kc.type = 'UQ' AND c.name = N'username'
+  AND (SELECT COUNT(*) FROM sys.index_columns x
+       WHERE x.object_id = kc.parent_object_id AND x.index_id = kc.unique_index_id) = 1;
+
+IF @name IS NULL
+    ALTER TABLE dbo.users ADD CONSTRAINT uk_users_username UNIQUE (username);
+ELSE IF @name <> N'uk_users_username'
+BEGIN
+    SET @qualified = N'dbo.' + QUOTENAME(@name);
+    EXEC sp_rename @qualified, N'uk_users_username', N'OBJECT';
+END
+
+-- email
+SET @name = NULL;
+SELECT @name = kc.name
+FROM sys.key_constraints kc
+JOIN sys.index_columns ic ON ic.object_id = kc.parent_object_id AND ic.index_id = kc.unique_index_id
+JOIN sys.columns c ON c.object_id = ic.object_id AND c.column_id = ic.column_id
+WHERE kc.parent_object_id = OBJECT_ID(N'dbo.users') AND kc.type = 'UQ' AND c.name = N'email'
+  AND (SELECT COUNT(*) FROM sys.index_columns x
+       WHERE x.object_id = kc.parent_object_id AND x.index_id = kc.unique_index_id) = 1;
+
+IF @name IS NULL
+    ALTER TABLE dbo.users ADD CONSTRAINT uk_users_email UNIQUE (email);
+ELSE IF @name <> N'uk_users_email'
+BEGIN
+    SET @qualified = N'dbo.' + QUOTENAME(@name);
+    EXEC sp_rename @qualified, N'uk_users_email', N'OBJECT';
+END
+GO
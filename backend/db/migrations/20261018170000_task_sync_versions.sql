@@ -0,0 +1,47 @@
+-- ============================================================================
+-- Marca de sincronización por orden de commit (SQL Server)
+--
+-- GET /tasks/changes deja de paginar por updated_at (hora fijada antes del
+-- commit: una escritura lenta quedaba por detrás de la marca y se perdía) y
+-- pasa a (sync_version, id). sync_version es la versión de la colección del
+-- usuario con la que se escribió la fila; se asigna con la fila de
+-- task_collection_versions bloqueada, así que sigue el orden de commit.
+--
+-- Las filas existentes quedan con 0: las marcas anteriores se rechazan como
+-- antiguas y el cliente resincroniza completo, lo que las entrega igualmente.
+-- ddl-auto: update intentaría añadir las columnas NOT NULL sin default, lo que
+-- falla con filas existentes; por eso se crean aquí.
+--
+-- Ejecutar con sqlcmd / SSMS ANTES de desplegar; es idempotente.
+-- ============================================================================
+
+SET XACT_ABORT ON;
+BEGIN TRANSACTION;
+GO
+
+IF COL_LENGTH(N'dbo.tasks', N'sync_version') IS NULL
+    ALTER TABLE dbo.tasks ADD sync_version BIGINT NOT NULL CONSTRAINT df_tasks_sync_version DEFAULT 0;
+GO
+
+IF COL_LENGTH(N'dbo.task_tombstones', N'sync_version') IS NULL
+    ALTER TABLE dbo.task_tombstones ADD sync_version BIGINT NOT NULL CONSTRAINT df_task_tombstones_sync_version DEFAULT 0;
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID(N'dbo.tasks') AND name = N'idx_tasks_user_updated')
+    DROP INDEX idx_tasks_user_updated ON dbo.tasks;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID(N'dbo.tasks') AND name = N'idx_tasks_user_sync')
+    CREATE INDEX idx_tasks_user_sync ON dbo.tasks (user_id, sync_version, id);
+GO
+
+IF EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID(N'dbo.task_tombstones') AND name = N'idx_task_tombstones_user_deleted')
+    DROP INDEX idx_task_tombstones_user_deleted ON dbo.task_tombstones;
+GO
+
+IF NOT EXISTS (SELECT 1 FROM sys.indexes WHERE object_id = OBJECT_ID(N'dbo.task_tombstones') AND name = N'idx_task_tombstones_user_sync')
+    CREATE INDEX idx_task_tombstones_user_sync ON dbo.task_tombstones (user_id, sync_version, task_id);
+GO
+
+COMMIT TRANSACTION;
+GO
@@ -0,0 +1,198 @@
+package com.tcc.taskmanager.config;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 📊 Métricas de los pools Hikari por endpoint: cuánto espera una petición por una conexión
+ * (db.connection.wait) y cuánto la retiene hasta devolverla (db.connection.hold), etiquetadas con el patrón
+ * de la ruta que la pidió. Hikari llama al tracker en el hilo que toma y cierra la conexión, así que la
+ * petición en curso se lee de RequestContextHolder; fuera de una petición (jobs, pool de BCrypt) la ruta es "none".
+ * Además vigila la saturación de cada pool (db.pool.saturated) y avisa en el log al entrar y salir de ella.
+ * Las métricas hikaricp.* de siempre se siguen publicando: cada tracker delega en el de Micrometer.
+ */
+@Component
+public class ConnectionPoolMetrics implements MetricsTrackerFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolMetrics.class);
+
+    private static final String NO_REQUEST = "none";
+    // Petición aún sin handler resuelto: la conexión la pidió un filtro (p. ej. cargar el usuario del JWT)
+    private static final String UNMATCHED = "UNMATCHED";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Fracción de conexiones activas a partir de la cual el pool cuenta como saturado
+    @Value("${datasource.pool.saturation-threshold:0.9}")
+    private double saturationThreshold;
+
+    private final Map<String, PoolState> pools = new ConcurrentHashMap<>();
+
+    /**
+     * Hikari lo invoca al arrancar cada pool (primera conexión), no al crear el bean
+     */
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        PoolState state = new PoolState(poolName, poolStats);
+        pools.put(poolName, state);
+
+        Gauge.builder("db.pool.utilization", poolStats, ConnectionPoolMetrics::utilization)
+            .description("Conexiones activas sobre el máximo del pool")
+            .tag("pool", poolName)
+            .register(meterRegistry);
+        Gauge.builder("db.pool.saturated", state, s -> isSaturated(s.stats) ? 1 : 0)
+            .description("1 si el pool está saturado: hilos esperando conexión o utilización sobre el umbral")
+            .tag("pool", poolName)
+            .register(meterRegistry);
+        state.alarms = Counter.builder("db.pool.saturation.alarms")
+            .description("Veces que el pool entró en saturación")
+            .tag("pool", poolName)
+            .register(meterRegistry);
+
+        IMetricsTracker hikariTracker = new MicrometerMetricsTrackerFactory(meterRegistry).create(poolName, poolStats);
+        return new EndpointMetricsTracker(poolName, hikariTracker);
+    }
+
+    /**
+     * 🚨 Alarma de saturación: un aviso al entrar y otro al salir, no uno por comprobación
+     */
+    @Scheduled(fixedDelayString = "${datasource.pool.check-ms:5000}")
+    public void checkSaturation() {
+        for (PoolState state : pools.values()) {
+            PoolStats stats = state.stats;
+            boolean saturated = isSaturated(stats);
+            if (saturated && !state.saturated) {
+                state.alarms.increment();
+                logger.warn("Pool {} saturado: {}/{} conexiones activas, {} hilos esperando",
+                    state.poolName, stats.getActiveConnections(), stats.getMaxConnections(), stats.getPendingThreads());
+            } else if (!saturated && state.saturated) {
+                logger.info("Pool {} fuera de saturación: {}/{} conexiones activas",
+                    state.poolName, stats.getActiveConnections(), stats.getMaxConnections());
+            }
+            state.saturated = saturated;
+        }
+    }
+
+    private boolean isSaturated(PoolStats stats) {
+        return stats.getPendingThreads() > 0 || utilization(stats) >= saturationThreshold;
+    }
+
+    private static double utilization(PoolStats stats) {
+        int max = stats.getMaxConnections();
+        return max > 0 ? (double) stats.getActiveConnections() / max : 0;
+    }
+
+    private static final class PoolState {
+
+        private final String poolName;
+        private final PoolStats stats;
+        private Counter alarms;
+        // Solo lo toca la tarea programada
+        private boolean saturated;
+
+        PoolState(String poolName, PoolStats stats) {
+            this.poolName = poolName;
+            this.stats = stats;
+        }
+    }
+
+    private final class EndpointMetricsTracker implements IMetricsTracker {
+
+        private final String poolName;
+        private final IMetricsTracker delegate;
+
+        EndpointMetricsTracker(String poolName, IMetricsTracker delegate) {
+            this.poolName = poolName;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            endpointTimer("db.connection.wait", "Espera por una conexión del pool", Duration.ofSeconds(30))
+                .record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            endpointTimer("db.connection.hold", "Tiempo con la conexión tomada, de getConnection a close", Duration.ofSeconds(60))
+                .record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            HttpServletRequest request = currentRequest();
+            Counter.builder("db.connection.timeouts")
+                .description("Peticiones de conexión que agotaron connectionTimeout")
+                .tag("pool", poolName)
+                .tag("method", request != null ? request.getMethod() : NO_REQUEST)
+                .tag("uri", uri(request))
+                .register(meterRegistry)
+                .increment();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        // Histograma por endpoint: buckets para el backend de métricas y p50/p99 visibles en /actuator/metrics
+        private Timer endpointTimer(String name, String description, Duration maximumExpected) {
+            HttpServletRequest request = currentRequest();
+            return Timer.builder(name)
+                .description(description)
+                .tag("pool", poolName)
+                .tag("method", request != null ? request.getMethod() : NO_REQUEST)
+                .tag("uri", uri(request))
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.99)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(maximumExpected)
+                .register(meterRegistry);
+        }
+    }
+
+    private static HttpServletRequest currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getRequest() : null;
+    }
+
+    // El patrón (/tasks/{id}), no la URI concreta: la cardinalidad queda acotada por los endpoints
+    private static String uri(HttpServletRequest request) {
+        if (request == null) {
+            return NO_REQUEST;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : UNMATCHED;
+    }
+}
@@ -0,0 +1,31 @@
+package com.tcc.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 📊 Instala ConnectionPoolMetrics en todos los pools Hikari (el de Spring Boot o primario y réplica).
+ * Se hace antes de inicializar el bean: la configuración del pool queda sellada al arrancar, y con un
+ * MetricsTrackerFactory ya puesto Spring Boot no añade el suyo.
+ */
+@Configuration
+public class ConnectionPoolMetricsConfig {
+
+    // static y con ObjectProvider: un BeanPostProcessor no debe forzar la creación temprana del MeterRegistry
+    @Bean
+    public static BeanPostProcessor connectionPoolMetricsPostProcessor(ObjectProvider<ConnectionPoolMetrics> metrics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null
+                        && dataSource.getMetricRegistry() == null) {
+                    dataSource.setMetricsTrackerFactory((poolName, poolStats) -> metrics.getObject().create(poolName, poolStats));
+                }
+                return bean;
+            }
+        };
+    }
+}
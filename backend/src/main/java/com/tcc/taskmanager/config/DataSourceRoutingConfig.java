@@ -0,0 +1,86 @@
+package com.tcc.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+
+/**
+ * 🗄️ Réplica de lectura: con datasource.replica.enabled el DataSource de la aplicación enruta las
+ * transacciones readOnly a un pool contra la réplica y el resto al primario (spring.datasource).
+ * Sin la propiedad no se crea nada de esto y Spring Boot configura su DataSource de siempre.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${datasource.replica.url}") String url,
+                                              @Value("${datasource.replica.username:}") String username,
+                                              @Value("${datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+            .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                               MeterRegistry meterRegistry) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(new JdbcTemplate(primary), new JdbcTemplate(replica),
+            Duration.ofSeconds(maxLagSeconds));
+        Gauge.builder("datasource.replica.lag", monitor, ReplicaLagMonitor::getLagSeconds)
+            .description("Retraso medido de la réplica en segundos; -1 si no responde")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        return monitor;
+    }
+
+    /**
+     * El DataSource que usan JPA y el resto de la aplicación. La ventana de stickiness nunca es menor que
+     * el retraso máximo admitido: pasada la ventana, la réplica ya contiene la escritura del usuario.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 @Value("${datasource.replica.sticky-seconds:10}") long stickySeconds,
+                                 @Value("${datasource.replica.max-lag-seconds:5}") long maxLagSeconds,
+                                 MeterRegistry meterRegistry) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, replicaLagMonitor,
+            Duration.ofSeconds(Math.max(stickySeconds, maxLagSeconds)), meterRegistry);
+        routing.afterPropertiesSet();
+
+        // La conexión física se pide en la primera sentencia, cuando la marca readOnly ya está puesta
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(routing);
+        lazy.setDefaultAutoCommit(true);
+        lazy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return lazy;
+    }
+}
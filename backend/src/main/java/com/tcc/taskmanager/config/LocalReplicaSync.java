@@ -0,0 +1,91 @@
+package com.tcc.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 🧪 Solo perfil local-replica: dos H2 en memoria hacen de primario y réplica, y esta tarea simula la
+ * replicación asíncrona copiando el primario entero a la réplica cada local-sync-ms. El retraso que
+ * mide ReplicaLagMonitor es el de esta copia; subir local-sync-ms por encima de max-lag-seconds
+ * permite ver la vuelta al primario.
+ */
+@Component
+@Profile("local-replica")
+public class LocalReplicaSync {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalReplicaSync.class);
+
+    private static final long DRAIN_TIMEOUT_MS = 2000;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private Path script;
+
+    @PostConstruct
+    public void init() {
+        try {
+            script = Files.createTempFile("task-manager-replica", ".sql");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(script);
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.local-sync-ms:2000}",
+               initialDelayString = "${datasource.replica.local-sync-ms:2000}")
+    public void sync() {
+        replicaLagMonitor.suspendWhile(() -> {
+            // Las lecturas que ya tenían conexión a la réplica terminan antes de vaciarla
+            awaitIdleReplica();
+            String file = script.toAbsolutePath().toString().replace("'", "''");
+            new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + file + "'");
+            JdbcTemplate replica = new JdbcTemplate(replicaDataSource);
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + file + "'");
+        });
+    }
+
+    private void awaitIdleReplica() {
+        long deadline = System.currentTimeMillis() + DRAIN_TIMEOUT_MS;
+        while (replicaDataSource.getHikariPoolMXBean() != null
+                && replicaDataSource.getHikariPoolMXBean().getActiveConnections() > 0
+                && System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (System.currentTimeMillis() >= deadline) {
+            logger.warn("La réplica local sigue con conexiones activas; se copia igualmente");
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.tcc.taskmanager.config;
+
+import com.tcc.taskmanager.model.ReplicaHeartbeat;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * ⏱️ Retraso de la réplica medido con un latido: escribe la hora en replica_heartbeat del primario y lee
+ * la fila replicada en la réplica. Si el retraso supera max-lag-seconds, o la réplica no responde, las
+ * lecturas vuelven al primario hasta la siguiente medición correcta.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String UPDATE_BEAT = "UPDATE replica_heartbeat SET beat_at = ? WHERE id = ?";
+    private static final String INSERT_BEAT = "INSERT INTO replica_heartbeat (id, beat_at) VALUES (?, ?)";
+    private static final String SELECT_BEAT = "SELECT beat_at FROM replica_heartbeat WHERE id = ?";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMillis;
+
+    // Sin hilos virtuales fijados a su portador: la medición hace E/S con el lock tomado
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(JdbcTemplate primary, JdbcTemplate replica, Duration maxLag) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replica.heartbeat-ms:1000}")
+    public void check() {
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            beat(now);
+            measure(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    /** Último retraso medido en segundos; -1 si la réplica no respondió o aún no tiene latido */
+    public double getLagSeconds() {
+        return lagMillis < 0 ? -1 : lagMillis / 1000.0;
+    }
+
+    /**
+     * Deja la réplica fuera de uso mientras corre la acción; la siguiente medición decide si vuelve
+     */
+    public void suspendWhile(Runnable action) {
+        lock.lock();
+        try {
+            update(false, -1);
+            action.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void beat(LocalDateTime now) {
+        try {
+            if (primary.update(UPDATE_BEAT, now, ReplicaHeartbeat.ROW_ID) == 0) {
+                primary.update(INSERT_BEAT, ReplicaHeartbeat.ROW_ID, now);
+            }
+        } catch (DuplicateKeyException e) {
+            // Otra instancia insertó la fila en paralelo
+        } catch (DataAccessException e) {
+            logger.warn("No se pudo escribir el latido de replicación: {}", e.getMessage());
+        }
+    }
+
+    private void measure(LocalDateTime now) {
+        try {
+            List<LocalDateTime> beats = replica.query(SELECT_BEAT,
+                (rs, rowNum) -> rs.getObject(1, LocalDateTime.class), ReplicaHeartbeat.ROW_ID);
+            if (beats.isEmpty()) {
+                update(false, -1);
+                return;
+            }
+            long lag = Math.max(0, Duration.between(beats.get(0), now).toMillis());
+            update(lag <= maxLagMillis, lag);
+        } catch (DataAccessException e) {
+            update(false, -1);
+        }
+    }
+
+    private void update(boolean usable, long lag) {
+        lagMillis = lag;
+        if (usable != replicaUsable) {
+            replicaUsable = usable;
+            if (usable) {
+                logger.info("Réplica disponible para lecturas (retraso {} ms)", lag);
+            } else {
+                logger.warn("Réplica fuera de uso, lecturas al primario (retraso {} ms, máximo {} ms)", lag, maxLagMillis);
+            }
+        }
+    }
+}
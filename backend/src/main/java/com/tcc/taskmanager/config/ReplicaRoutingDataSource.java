@@ -0,0 +1,131 @@
+package com.tcc.taskmanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tcc.taskmanager.security.UserPrincipal;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 🔀 Elige primario o réplica al abrir cada conexión física, según la transacción que la pide.
+ * Va detrás de un LazyConnectionDataSourceProxy, así que la decisión se toma con la transacción ya
+ * iniciada y su marca readOnly visible. Una transacción readOnly va a la réplica salvo que:
+ * - la propia transacción pidió el primario con readFromPrimary(),
+ * - el usuario autenticado confirmó una escritura hace menos de sticky-seconds (read-your-writes), o
+ * - ReplicaLagMonitor la tiene fuera de uso por retraso o por no responder.
+ * Todo lo demás (escrituras, arranque, lecturas fuera de transacción) va al primario.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Route { PRIMARY, REPLICA }
+
+    // Recurso de la transacción en curso que pide el primario; se desliga al terminar la transacción
+    private static final Object PRIMARY_HINT = new Object();
+
+    private final ReplicaLagMonitor lagMonitor;
+
+    // Usuarios con una escritura confirmada en la ventana de stickiness; la entrada expira sola
+    private final Cache<Long, Boolean> recentWriters;
+
+    private final Counter writes;
+    private final Counter hintedReads;
+    private final Counter stickyReads;
+    private final Counter laggingReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor,
+                                    Duration stickiness, MeterRegistry meterRegistry) {
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        this.lagMonitor = lagMonitor;
+        this.recentWriters = Caffeine.newBuilder().expireAfterWrite(stickiness).build();
+        this.writes = routed(meterRegistry, Route.PRIMARY, "write");
+        this.hintedReads = routed(meterRegistry, Route.PRIMARY, "hint");
+        this.stickyReads = routed(meterRegistry, Route.PRIMARY, "sticky");
+        this.laggingReads = routed(meterRegistry, Route.PRIMARY, "lag");
+        this.replicaReads = routed(meterRegistry, Route.REPLICA, "read");
+    }
+
+    /**
+     * Lectura readOnly que debe ver el primario (p. ej. /tasks/changes, para no devolver una marca más
+     * antigua que la del cliente). Sigue siendo readOnly: no cuenta como escritura ni vuelve sticky al usuario.
+     * Debe llamarse dentro de la transacción y antes de su primera sentencia; sin réplica no tiene efecto.
+     */
+    public static void readFromPrimary() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(PRIMARY_HINT)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(PRIMARY_HINT, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(PRIMARY_HINT);
+            }
+        });
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        Long userId = currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            if (userId != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+                rememberWriteOnCommit(userId);
+            }
+            return Route.PRIMARY;
+        }
+        if (TransactionSynchronizationManager.hasResource(PRIMARY_HINT)) {
+            hintedReads.increment();
+            return Route.PRIMARY;
+        }
+        if (userId != null && recentWriters.getIfPresent(userId) != null) {
+            stickyReads.increment();
+            return Route.PRIMARY;
+        }
+        if (!lagMonitor.isReplicaUsable()) {
+            laggingReads.increment();
+            return Route.PRIMARY;
+        }
+        replicaReads.increment();
+        return Route.REPLICA;
+    }
+
+    private void rememberWriteOnCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+        return null;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, Route route, String reason) {
+        return Counter.builder("datasource.routing")
+            .description("Conexiones físicas abiertas por destino y motivo")
+            .tag("target", route.name().toLowerCase())
+            .tag("reason", reason)
+            .register(meterRegistry);
+    }
+}
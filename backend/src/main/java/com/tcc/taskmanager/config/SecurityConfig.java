@@ -3,6 +3,7 @@ package com.tcc.taskmanager.config;
 import com.tcc.taskmanager.security.JwtAuthenticationEntryPoint;
 import com.tcc.taskmanager.security.JwtAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -26,6 +27,19 @@ import java.util.Arrays;
 @EnableMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+    /**
+     * Rutas públicas (relativas al context-path); JwtAuthenticationFilter no procesa tokens en ellas
+     */
+    public static final String[] PUBLIC_PATHS = {
+        "/auth/**",
+        "/api/auth/**",
+        "/api-docs/**",
+        "/swagger-ui/**",
+        "/swagger-ui.html",
+        "/actuator/**",
+        "/h2-console/**"
+    };
+
     @Autowired
     private JwtAuthenticationEntryPoint jwtAuthenticationEntryPoint;
 
@@ -33,15 +47,16 @@ public class SecurityConfig {
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     /**
-     * Password encoder using BCrypt
+     * Password encoder using BCrypt. Al subir el coste, los hashes anteriores se regeneran en el siguiente login
+     * (LoginAuthenticationProvider)
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
-     * Authentication manager bean
+     * Authentication manager bean: delega en LoginAuthenticationProvider (único AuthenticationProvider del contexto)
      */
     @Bean
     public AuthenticationManager authenticationManager(
@@ -70,13 +85,7 @@ public class SecurityConfig {
                 // Authorization rules
 
                 .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers("/api/auth/**").permitAll()
-                        .requestMatchers("/api-docs/**").permitAll()
-                        .requestMatchers("/swagger-ui/**").permitAll()
-                        .requestMatchers("/swagger-ui.html").permitAll()
-                        .requestMatchers("/actuator/**").permitAll()
-                        .requestMatchers("/h2-console/**").permitAll()
+                        .requestMatchers(PUBLIC_PATHS).permitAll()
                         .requestMatchers("/api/**").authenticated()
                         .anyRequest().authenticated());
 
@@ -0,0 +1,105 @@
+package com.tcc.taskmanager.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * 🧵 Diagnóstico de pinning con hilos virtuales: escucha en proceso el evento JFR jdk.VirtualThreadPinned
+ * (un hilo virtual que bloquea dentro de un synchronized o de código nativo y retiene su hilo portador).
+ * Cada evento se cuenta por origen (driver JDBC, pool, Hibernate, aplicación) y se registra con su pila.
+ * Solo existe con spring.threads.virtual.enabled en Java 21+.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 15;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // JFR solo emite los bloqueos que superan este umbral (por defecto del JDK: 20 ms)
+    @Value("${diagnostics.virtual-threads.pinned-threshold-ms:20}")
+    private long pinnedThresholdMs;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(pinnedThresholdMs)).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, this::onPinned);
+        recordingStream.startAsync();
+        logger.info("Monitor de pinning de hilos virtuales activo (umbral {} ms)", pinnedThresholdMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String source = source(frames);
+
+        Timer.builder("jvm.threads.virtual.pinned")
+            .description("Tiempo que un hilo virtual retuvo su hilo portador al bloquear")
+            .tag("source", source)
+            .register(meterRegistry)
+            .record(event.getDuration());
+
+        if (logger.isWarnEnabled()) {
+            StringBuilder trace = new StringBuilder();
+            for (int i = 0; i < Math.min(LOGGED_FRAMES, frames.size()); i++) {
+                RecordedFrame frame = frames.get(i);
+                trace.append("\n\tat ").append(frame.getMethod().getType().getName())
+                    .append('.').append(frame.getMethod().getName())
+                    .append(':').append(frame.getLineNumber());
+            }
+            logger.warn("Hilo virtual fijado a su portador {} ms ({}):{}",
+                event.getDuration().toMillis(), source, trace);
+        }
+    }
+
+    // Origen del bloqueo: el primer marco reconocible desde la cima de la pila
+    private static String source(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.microsoft.sqlserver.")) {
+                return "jdbc-driver";
+            }
+            if (type.startsWith("com.zaxxer.hikari.")) {
+                return "connection-pool";
+            }
+            if (type.startsWith("org.hibernate.")) {
+                return "hibernate";
+            }
+            if (type.startsWith("com.tcc.taskmanager.")) {
+                return "application";
+            }
+        }
+        return "other";
+    }
+}
@@ -0,0 +1,40 @@
+package com.tcc.taskmanager.controller;
+
+import com.tcc.taskmanager.model.dto.BulkItemResultDto;
+import com.tcc.taskmanager.model.dto.RegisterRequestDto;
+import com.tcc.taskmanager.model.dto.UserProfileDto;
+import com.tcc.taskmanager.service.TokenRevocationService;
+import com.tcc.taskmanager.service.UserProvisioningService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/admin")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminController {
+
+    @Autowired
+    private UserProvisioningService userProvisioningService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    // 👥 ALTA MASIVA - resultado por elemento en el mismo orden de la petición
+    @PostMapping("/users/bulk")
+    public ResponseEntity<List<BulkItemResultDto<UserProfileDto>>> provisionUsers(@RequestBody List<RegisterRequestDto> users) {
+        return ResponseEntity.ok(userProvisioningService.provisionUsers(users));
+    }
+
+    // 🚫 REVOCACIÓN FORZADA - invalida un access token concreto por su jti en todas las instancias
+    @PostMapping("/tokens/{jti}/revoke")
+    public ResponseEntity<?> revokeToken(@PathVariable UUID jti) {
+        tokenRevocationService.revoke(jti);
+        return ResponseEntity.ok("Token revocado exitosamente");
+    }
+}
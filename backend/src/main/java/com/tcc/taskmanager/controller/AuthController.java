@@ -1,14 +1,23 @@
 package com.tcc.taskmanager.controller;
 
+import com.tcc.taskmanager.exception.InvalidTokenException;
+import com.tcc.taskmanager.exception.ServiceUnavailableException;
 import com.tcc.taskmanager.model.dto.JwtResponseDto;
 import com.tcc.taskmanager.model.dto.LoginRequestDto;
+import com.tcc.taskmanager.model.dto.RefreshTokenRequestDto;
 import com.tcc.taskmanager.model.dto.RegisterRequestDto;
 import com.tcc.taskmanager.service.AuthService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/auth")
@@ -17,25 +26,60 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    // ⏳ Respuestas asíncronas: el hilo de Tomcat se libera mientras BCrypt trabaja en el pool de hashing
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequestDto loginRequest) {
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@Valid @RequestBody LoginRequestDto loginRequest) {
+        return respond(() -> authService.authenticateUser(loginRequest));
+    }
+
+    @PostMapping("/register")
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequestDto signUpRequest) {
+        return respond(() -> authService.registerUser(signUpRequest));
+    }
+
+    // 🔄 Renovación sin contraseña: el refresh token se consume y se devuelve uno nuevo junto al access token
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequestDto refreshRequest) {
         try {
-            JwtResponseDto response = authService.authenticateUser(loginRequest);
+            JwtResponseDto response = authService.refreshToken(refreshRequest);
             return ResponseEntity.ok(response);
+        } catch (InvalidTokenException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body("Error: " + e.getMessage());
         }
     }
 
-    @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequestDto signUpRequest) {
+    // 🚪 /auth/** no pasa por el filtro JWT: el access token se lee aquí para revocarlo aunque ya no sea válido
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @RequestBody(required = false) RefreshTokenRequestDto logoutRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? authorization.substring(7) : null;
+        authService.logout(accessToken, logoutRequest != null ? logoutRequest.getRefreshToken() : null);
+        return ResponseEntity.ok("Sesión cerrada exitosamente");
+    }
+
+    private CompletableFuture<ResponseEntity<?>> respond(Supplier<CompletableFuture<JwtResponseDto>> action) {
+        CompletableFuture<JwtResponseDto> response;
         try {
-            JwtResponseDto response = authService.registerUser(signUpRequest);
-            return ResponseEntity.ok(response);
+            response = action.get();
         } catch (Exception e) {
-            return ResponseEntity.badRequest()
-                    .body("Error: " + e.getMessage());
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.<ResponseEntity<?>>thenApply(ResponseEntity::ok).exceptionally(this::errorResponse);
+    }
+
+    private ResponseEntity<?> errorResponse(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof ServiceUnavailableException) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Error: " + cause.getMessage());
         }
+        return ResponseEntity.badRequest()
+                .body("Error: " + cause.getMessage());
     }
 }
\ No newline at end of file
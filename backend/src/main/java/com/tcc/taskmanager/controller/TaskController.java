@@ -1,17 +1,35 @@
 package com.tcc.taskmanager.controller;
 
+import com.tcc.taskmanager.config.ReplicaRoutingDataSource;
+import com.tcc.taskmanager.model.dto.BulkItemResultDto;
+import com.tcc.taskmanager.model.dto.TaskChangesDto;
 import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskQueryDto;
 import com.tcc.taskmanager.model.dto.TaskStatsDto;
+import com.tcc.taskmanager.model.dto.TaskDeleteResultDto;
+import com.tcc.taskmanager.model.dto.TaskStatusMoveResultDto;
 import com.tcc.taskmanager.model.TaskStatus;
 import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.security.UserPrincipal;
+import com.tcc.taskmanager.service.TaskCollectionVersionService;
 import com.tcc.taskmanager.service.TaskService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.TreeMap;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
@@ -21,79 +39,229 @@ public class TaskController {
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskCollectionVersionService taskCollectionVersionService;
+
+    // Sin cursor ni limit se conserva la respuesta histórica (lista completa) mientras este flag siga activo
+    @Value("${tasks.pagination.allow-unpaged:true}")
+    private boolean allowUnpaged;
+
     // ✅ ENDPOINTS ESPECÍFICOS PRIMERO
     @GetMapping("/my")
-    public ResponseEntity<List<TaskDto>> getMyTasks(Authentication authentication) {
-        List<TaskDto> tasks = taskService.getUserTasks(authentication.getName());
-        return ResponseEntity.ok(tasks);
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getMyTasks(@RequestParam(required = false) String cursor,
+                                        @RequestParam(required = false) Integer limit,
+                                        @AuthenticationPrincipal UserPrincipal principal,
+                                        ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        if (isUnpaged(cursor, limit)) {
+            List<TaskDto> tasks = taskService.getUserTasks(principal.getId());
+            return ResponseEntity.ok(tasks);
+        }
+        return ResponseEntity.ok(taskService.getUserTasksPage(principal.getId(), cursor, limit));
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<TaskStatsDto> getMyTaskStats(Authentication authentication) {
-        TaskStatsDto stats = taskService.getUserTaskStats(authentication.getName());
+    public ResponseEntity<TaskStatsDto> getMyTaskStats(@AuthenticationPrincipal UserPrincipal principal) {
+        TaskStatsDto stats = taskService.getUserTaskStats(principal.getId());
         return ResponseEntity.ok(stats);
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskDto>> getTasksByStatus(@PathVariable TaskStatus status, 
-                                                        Authentication authentication) {
-        List<TaskDto> tasks = taskService.getUserTasksByStatus(authentication.getName(), status);
-        return ResponseEntity.ok(tasks);
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getTasksByStatus(@PathVariable TaskStatus status,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(required = false) Integer limit,
+                                              @AuthenticationPrincipal UserPrincipal principal,
+                                              ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        if (isUnpaged(cursor, limit)) {
+            List<TaskDto> tasks = taskService.getUserTasksByStatus(principal.getId(), status);
+            return ResponseEntity.ok(tasks);
+        }
+        return ResponseEntity.ok(
+            taskService.getUserTasksByStatusPage(principal.getId(), status, cursor, limit));
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<TaskDto>> getTasksByPriority(@PathVariable Priority priority, 
-                                                          Authentication authentication) {
-        List<TaskDto> tasks = taskService.getUserTasksByPriority(authentication.getName(), priority);
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getTasksByPriority(@PathVariable Priority priority,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit,
+                                                @AuthenticationPrincipal UserPrincipal principal,
+                                                ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        if (isUnpaged(cursor, limit)) {
+            List<TaskDto> tasks = taskService.getUserTasksByPriority(principal.getId(), priority);
+            return ResponseEntity.ok(tasks);
+        }
+        return ResponseEntity.ok(
+            taskService.getUserTasksByPriorityPage(principal.getId(), priority, cursor, limit));
+    }
+
+    @GetMapping("/query")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<TaskDto>> queryTasks(@ModelAttribute TaskQueryDto query,
+                                                    @AuthenticationPrincipal UserPrincipal principal,
+                                                    ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        List<TaskDto> tasks = taskService.queryUserTasks(principal.getId(), query);
         return ResponseEntity.ok(tasks);
     }
 
+    // 🔄 Sincronización incremental: se llama con el watermark de la respuesta anterior
+    @GetMapping("/changes")
+    @Transactional(readOnly = true)
+    public ResponseEntity<TaskChangesDto> getTaskChanges(@RequestParam(required = false) String since,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @AuthenticationPrincipal UserPrincipal principal,
+                                                         ServletWebRequest webRequest) {
+        // Cuerpo y versión del ETag salen del primario: el hint va antes de la primera lectura de la transacción
+        ReplicaRoutingDataSource.readFromPrimary();
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        TaskChangesDto changes = taskService.getUserTaskChanges(principal.getId(), since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     @GetMapping("/search")
+    @Transactional(readOnly = true)
     public ResponseEntity<List<TaskDto>> searchTasks(@RequestParam String query, 
-                                                   Authentication authentication) {
-        List<TaskDto> tasks = taskService.searchUserTasks(authentication.getName(), query);
+                                                   @AuthenticationPrincipal UserPrincipal principal,
+                                                   ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        List<TaskDto> tasks = taskService.searchUserTasks(principal.getId(), query);
         return ResponseEntity.ok(tasks);
     }
 
     // ✅ ENDPOINT GENÉRICO AL FINAL
     @GetMapping("/{id}")
-    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id, Authentication authentication) {
-        TaskDto task = taskService.getTaskById(id, authentication.getName());
+    @Transactional(readOnly = true)
+    public ResponseEntity<TaskDto> getTaskById(@PathVariable Long id, @AuthenticationPrincipal UserPrincipal principal,
+                                               ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        TaskDto task = taskService.getTaskById(id, principal.getId());
         return ResponseEntity.ok(task);
     }
 
     @GetMapping
-    public ResponseEntity<List<TaskDto>> getAllMyTasks(Authentication authentication) {
-        List<TaskDto> tasks = taskService.getUserTasks(authentication.getName());
-        return ResponseEntity.ok(tasks);
+    @Transactional(readOnly = true)
+    public ResponseEntity<?> getAllMyTasks(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit,
+                                           @AuthenticationPrincipal UserPrincipal principal,
+                                           ServletWebRequest webRequest) {
+        if (isNotModified(principal, webRequest)) {
+            return null;
+        }
+        if (isUnpaged(cursor, limit)) {
+            List<TaskDto> tasks = taskService.getUserTasks(principal.getId());
+            return ResponseEntity.ok(tasks);
+        }
+        return ResponseEntity.ok(taskService.getUserTasksPage(principal.getId(), cursor, limit));
     }
 
     @PostMapping
     public ResponseEntity<TaskDto> createTask(@Valid @RequestBody TaskDto taskDto, 
-                                            Authentication authentication) {
-        TaskDto createdTask = taskService.createTask(taskDto, authentication.getName());
+                                            @AuthenticationPrincipal UserPrincipal principal) {
+        TaskDto createdTask = taskService.createTask(taskDto, principal.getId());
         return ResponseEntity.ok(createdTask);
     }
 
+    // 📦 OPERACIONES MASIVAS - resultado por elemento en el mismo orden de la petición
+    @PostMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDto<TaskDto>>> createTasks(@RequestBody List<TaskDto> tasks,
+                                                                       @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.createTasks(tasks, principal.getId()));
+    }
+
+    @PatchMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDto<TaskDto>>> updateTasks(@RequestBody List<TaskDto> tasks,
+                                                                       @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.updateTasks(tasks, principal.getId()));
+    }
+
+    @DeleteMapping("/bulk")
+    public ResponseEntity<List<BulkItemResultDto<TaskDto>>> deleteTasks(@RequestBody List<Long> ids,
+                                                                       @AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(taskService.deleteTasks(ids, principal.getId()));
+    }
+
+    // 🔀 Mueve a ?to= todas las tareas que cumplen los mismos filtros de GET /query
+    @PatchMapping("/status")
+    public ResponseEntity<TaskStatusMoveResultDto> moveTasksToStatus(@ModelAttribute TaskQueryDto filter,
+                                                                     @RequestParam TaskStatus to,
+                                                                     @AuthenticationPrincipal UserPrincipal principal) {
+        TaskStatusMoveResultDto result = taskService.moveTasksToStatus(principal.getId(), filter, to);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<TaskDto> updateTask(@PathVariable Long id, 
                                             @Valid @RequestBody TaskDto taskDto,
-                                            Authentication authentication) {
-        TaskDto updatedTask = taskService.updateTask(id, taskDto, authentication.getName());
+                                            @AuthenticationPrincipal UserPrincipal principal) {
+        TaskDto updatedTask = taskService.updateTask(id, taskDto, principal.getId());
         return ResponseEntity.ok(updatedTask);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> deleteTask(@PathVariable Long id, Authentication authentication) {
-        taskService.deleteTask(id, authentication.getName());
-        return ResponseEntity.ok("Tarea eliminada exitosamente");
+    public ResponseEntity<TaskDeleteResultDto> deleteTask(@PathVariable Long id,
+                                                          @AuthenticationPrincipal UserPrincipal principal) {
+        int deleted = taskService.deleteTask(id, principal.getId());
+        return ResponseEntity.ok(new TaskDeleteResultDto(id, deleted));
     }
 
     @PatchMapping("/{id}/status")
     public ResponseEntity<TaskDto> updateTaskStatus(@PathVariable Long id, 
                                                    @RequestParam TaskStatus status,
-                                                   Authentication authentication) {
-        TaskDto updatedTask = taskService.updateTaskStatus(id, status, authentication.getName());
+                                                   @AuthenticationPrincipal UserPrincipal principal) {
+        TaskDto updatedTask = taskService.updateTaskStatus(id, status, principal.getId());
         return ResponseEntity.ok(updatedTask);
     }
+
+    /**
+     * ETag fuerte = versión de la colección del usuario + SHA-256 (64 bits) del id de usuario, la ruta y los
+     * parámetros ordenados (cursor y filtros; el orden en la URL no cambia el ETag). Si coincide con If-None-Match
+     * responde 304 sin leer tasks; en otro caso deja el ETag en la respuesta.
+     * Los GET que lo usan son readOnly: la versión se lee antes que el cuerpo y en la misma conexión (mismo
+     * primario o réplica), así el ETag nunca es más nuevo que el contenido que etiqueta.
+     * /stats no lo usa: vencidas y próximas a vencer cambian con el reloj, no con las escrituras.
+     */
+    private boolean isNotModified(UserPrincipal principal, ServletWebRequest webRequest) {
+        long version = taskCollectionVersionService.currentVersion(principal.getId());
+        String etag = "\"" + version + "-" + resourceHash(principal.getId(), webRequest.getRequest()) + "\"";
+        return webRequest.checkNotModified(etag);
+    }
+
+    private static String resourceHash(Long userId, HttpServletRequest request) {
+        StringBuilder resource = new StringBuilder().append(userId).append(' ').append(request.getRequestURI());
+        new TreeMap<>(request.getParameterMap()).forEach((name, values) -> {
+            for (String value : values) {
+                resource.append('&').append(URLEncoder.encode(name, StandardCharsets.UTF_8)).append('=')
+                    .append(URLEncoder.encode(value, StandardCharsets.UTF_8));
+            }
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(resource.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private boolean isUnpaged(String cursor, Integer limit) {
+        return allowUnpaged && cursor == null && limit == null;
+    }
 }
\ No newline at end of file
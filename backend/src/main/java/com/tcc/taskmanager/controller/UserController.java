@@ -3,12 +3,13 @@ package com.tcc.taskmanager.controller;
 import com.tcc.taskmanager.model.User;
 import com.tcc.taskmanager.model.dto.UserProfileDto;
 import com.tcc.taskmanager.model.dto.ChangePasswordDto;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.UserPrincipal;
 import com.tcc.taskmanager.service.UserService;
-import com.tcc.taskmanager.service.JwtService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -23,19 +24,19 @@ public class UserController {
     private UserService userService;
 
     @Autowired
-    private JwtService jwtService;
+    private JwtUtils jwtUtils;
 
     @GetMapping("/profile")
-    public ResponseEntity<UserProfileDto> getProfile(Authentication authentication) {
-        UserProfileDto profile = userService.getUserProfile(authentication.getName());
+    public ResponseEntity<UserProfileDto> getProfile(@AuthenticationPrincipal UserPrincipal principal) {
+        UserProfileDto profile = userService.getUserProfile(principal.getId());
         return ResponseEntity.ok(profile);
     }
 
     @PutMapping("/profile")
     public ResponseEntity<?> updateProfile(@Valid @RequestBody UserProfileDto profileDto,
-                                           Authentication authentication) {
-        User updatedUser = userService.updateUserAndReturnEntity(authentication.getName(), profileDto);
-        String newToken = jwtService.generateToken(updatedUser);
+                                           @AuthenticationPrincipal UserPrincipal principal) {
+        User updatedUser = userService.updateUserAndReturnEntity(principal.getId(), profileDto);
+        String newToken = jwtUtils.generateUserToken(updatedUser);
 
         // Construir el DTO manualmente
         UserProfileDto updatedProfile = new UserProfileDto();
@@ -57,8 +58,8 @@ public class UserController {
 
     @PostMapping("/change-password")
     public ResponseEntity<?> changePassword(@Valid @RequestBody ChangePasswordDto changePasswordDto,
-                                            Authentication authentication) {
-        userService.changePassword(authentication.getName(),
+                                            @AuthenticationPrincipal UserPrincipal principal) {
+        userService.changePassword(principal.getId(),
                 changePasswordDto.getOldPassword(),
                 changePasswordDto.getNewPassword());
         return ResponseEntity.ok("Contraseña cambiada exitosamente");
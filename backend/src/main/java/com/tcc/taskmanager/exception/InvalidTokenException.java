@@ -0,0 +1,11 @@
+package com.tcc.taskmanager.exception;
+
+/**
+ * 🔄 Refresh token inexistente, expirado, revocado o ya utilizado (401)
+ */
+public class InvalidTokenException extends RuntimeException {
+
+    public InvalidTokenException(String message) {
+        super(message);
+    }
+}
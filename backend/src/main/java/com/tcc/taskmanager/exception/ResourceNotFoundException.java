@@ -0,0 +1,11 @@
+package com.tcc.taskmanager.exception;
+
+/**
+ * 🔍 El recurso solicitado no existe o no pertenece al usuario autenticado (404)
+ */
+public class ResourceNotFoundException extends RuntimeException {
+
+    public ResourceNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.tcc.taskmanager.exception;
+
+/**
+ * 🚦 El servidor está saturado y rechaza la petición en lugar de encolarla (503 + Retry-After)
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,84 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🔄 Refresh token opaco de un solo uso. Solo se guarda su SHA-256; cada uso lo revoca y emite otro de la
+ * misma familia. Presentar uno ya revocado indica robo o reutilización y revoca la familia completa.
+ */
+@Entity
+@Table(name = "refresh_tokens", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_refresh_tokens_hash", columnNames = "token_hash")
+}, indexes = {
+    @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+    @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    // Base64 del SHA-256 del token entregado al cliente
+    @Column(name = "token_hash", nullable = false, length = 44)
+    private String tokenHash;
+    
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+    
+    // users.token_version al emitirlo: cambiar la contraseña invalida también los refresh tokens
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+    
+    public RefreshToken() {}
+    
+    public RefreshToken(User user, String tokenHash, String familyId, long tokenVersion,
+                        LocalDateTime createdAt, LocalDateTime expiresAt) {
+        this.user = user;
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.tokenVersion = tokenVersion;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public User getUser() { return user; }
+    public void setUser(User user) { this.user = user; }
+    
+    public String getTokenHash() { return tokenHash; }
+    public void setTokenHash(String tokenHash) { this.tokenHash = tokenHash; }
+    
+    public String getFamilyId() { return familyId; }
+    public void setFamilyId(String familyId) { this.familyId = familyId; }
+    
+    public long getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(long tokenVersion) { this.tokenVersion = tokenVersion; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+}
@@ -0,0 +1,30 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 💓 Latido de replicación: una sola fila que las instancias actualizan en el primario y leen en la réplica.
+ * La diferencia entre el reloj y el latido replicado es el retraso de la réplica (ReplicaLagMonitor).
+ */
+@Entity
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    
+    public static final int ROW_ID = 1;
+    
+    @Id
+    private Integer id;
+    
+    @Column(name = "beat_at", nullable = false)
+    private LocalDateTime beatAt;
+    
+    public ReplicaHeartbeat() {}
+    
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+    
+    public LocalDateTime getBeatAt() { return beatAt; }
+    public void setBeatAt(LocalDateTime beatAt) { this.beatAt = beatAt; }
+}
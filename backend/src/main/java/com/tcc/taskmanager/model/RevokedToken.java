@@ -0,0 +1,61 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🚫 Access token revocado antes de su expiración (logout o revocación de un administrador), por su jti.
+ * La fila solo hace falta hasta expires_at: después el token ya no pasa la validación de firma y expiración.
+ */
+@Entity
+@Table(name = "revoked_tokens", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_revoked_tokens_jti", columnNames = "jti")
+}, indexes = {
+    @Index(name = "idx_revoked_tokens_expires", columnList = "expires_at"),
+    @Index(name = "idx_revoked_tokens_revoked", columnList = "revoked_at")
+})
+public class RevokedToken {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revoked_tokens_seq")
+    @SequenceGenerator(name = "revoked_tokens_seq", sequenceName = "revoked_tokens_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "jti", nullable = false, length = 36)
+    private String jti;
+    
+    // Dueño del token si se conoce; las revocaciones por jti de un administrador no lo traen
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+    
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+    
+    public RevokedToken() {}
+    
+    public RevokedToken(String jti, Long userId, LocalDateTime expiresAt, LocalDateTime revokedAt) {
+        this.jti = jti;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDateTime expiresAt) { this.expiresAt = expiresAt; }
+    
+    public LocalDateTime getRevokedAt() { return revokedAt; }
+    public void setRevokedAt(LocalDateTime revokedAt) { this.revokedAt = revokedAt; }
+}
@@ -8,12 +8,25 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    // Listado y paginación por cursor (createdAt, id) de todas las tareas del usuario
+    @Index(name = "idx_tasks_user_created", columnList = "user_id, created_at, id"),
+    // Filtros /status y /priority con el mismo orden de paginación
+    @Index(name = "idx_tasks_user_status_created", columnList = "user_id, status, created_at, id"),
+    @Index(name = "idx_tasks_user_priority_created", columnList = "user_id, priority, created_at, id"),
+    // Conteos de vencidas / próximas a vencer: igualdad en status (IN) y rango sobre due_date
+    @Index(name = "idx_tasks_user_status_due", columnList = "user_id, status, due_date"),
+    // Sincronización incremental: cambios posteriores a la marca (syncVersion, id)
+    @Index(name = "idx_tasks_user_sync", columnList = "user_id, sync_version, id")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class Task {
     
+    // IDENTITY desactiva el batching de inserts en Hibernate; la secuencia con optimizador
+    // pooled reserva 50 IDs por viaje y permite enviar los inserts en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "tasks_seq")
+    @SequenceGenerator(name = "tasks_seq", sequenceName = "tasks_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
@@ -43,6 +56,16 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // Bloqueo optimista; las sentencias UPDATE por conjunto de TaskRepository lo incrementan explícitamente
+    @Version
+    @Column(nullable = false)
+    private long version;
+    
+    // Versión de la colección del usuario (TaskCollectionVersion) de la última escritura sobre la tarea.
+    // Se asigna con la fila de versión bloqueada, así que crece en el orden en que se confirman las escrituras.
+    @Column(name = "sync_version", nullable = false)
+    private long syncVersion;
+    
     public Task() {}
     
     public Task(String title, String description, User user) {
@@ -77,4 +100,10 @@ public class Task {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
+    public long getSyncVersion() { return syncVersion; }
+    public void setSyncVersion(long syncVersion) { this.syncVersion = syncVersion; }
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * 🏷️ Versión de la colección de tareas de un usuario: avanza con cada escritura sobre sus tareas.
+ * Es la base de los ETag de los listados, así un GET condicional no necesita leer tasks.
+ */
+@Entity
+@Table(name = "task_collection_versions")
+public class TaskCollectionVersion {
+    
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+    
+    @Column(nullable = false)
+    private long version;
+    
+    public TaskCollectionVersion() {}
+    
+    public TaskCollectionVersion(Long userId, long version) {
+        this.userId = userId;
+        this.version = version;
+    }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+}
@@ -0,0 +1,57 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+/**
+ * 🔢 Contador materializado de tareas por (usuario, estado, prioridad).
+ * TaskService lo ajusta en la misma transacción que cada escritura sobre tasks.
+ */
+@Entity
+@Table(name = "task_counters", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_task_counters_user_status_priority", columnNames = {"user_id", "status", "priority"})
+})
+public class TaskCounter {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_counters_seq")
+    @SequenceGenerator(name = "task_counters_seq", sequenceName = "task_counters_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Priority priority;
+    
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+    
+    public TaskCounter() {}
+    
+    public TaskCounter(Long userId, TaskStatus status, Priority priority, long taskCount) {
+        this.userId = userId;
+        this.status = status;
+        this.priority = priority;
+        this.taskCount = taskCount;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status; }
+    
+    public Priority getPriority() { return priority; }
+    public void setPriority(Priority priority) { this.priority = priority; }
+    
+    public long getTaskCount() { return taskCount; }
+    public void setTaskCount(long taskCount) { this.taskCount = taskCount; }
+}
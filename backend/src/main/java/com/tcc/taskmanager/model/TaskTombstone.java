@@ -0,0 +1,58 @@
+package com.tcc.taskmanager.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🪦 Registro de una tarea eliminada, para que GET /tasks/changes pueda informar borrados.
+ * Se conserva durante tasks.sync.tombstone-retention-days; después los clientes resincronizan completo.
+ * syncVersion es la versión de la colección del borrado: ordena los tombstones junto con las tareas.
+ */
+@Entity
+@Table(name = "task_tombstones", indexes = {
+    @Index(name = "idx_task_tombstones_user_sync", columnList = "user_id, sync_version, task_id")
+})
+public class TaskTombstone {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_tombstones_seq")
+    @SequenceGenerator(name = "task_tombstones_seq", sequenceName = "task_tombstones_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    @Column(name = "sync_version", nullable = false)
+    private long syncVersion;
+    
+    public TaskTombstone() {}
+    
+    public TaskTombstone(Long userId, Long taskId, LocalDateTime deletedAt, long syncVersion) {
+        this.userId = userId;
+        this.taskId = taskId;
+        this.deletedAt = deletedAt;
+        this.syncVersion = syncVersion;
+    }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    
+    public Long getTaskId() { return taskId; }
+    public void setTaskId(Long taskId) { this.taskId = taskId; }
+    
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+    
+    public long getSyncVersion() { return syncVersion; }
+    public void setSyncVersion(long syncVersion) { this.syncVersion = syncVersion; }
+}
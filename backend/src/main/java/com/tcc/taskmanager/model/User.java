@@ -9,18 +9,26 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.UK_USERNAME, columnNames = "username"),
+    @UniqueConstraint(name = User.UK_EMAIL, columnNames = "email")
+})
 @EntityListeners(AuditingEntityListener.class)
 public class User {
     
+    // Nombres fijos: el alta se apoya en estas restricciones y traduce sus violaciones a mensajes
+    public static final String UK_USERNAME = "uk_users_username";
+    public static final String UK_EMAIL = "uk_users_email";
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
     
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
     
     @Column(nullable = false)
@@ -40,6 +48,10 @@ public class User {
     
     private boolean enabled = true;
     
+    // Se incrementa para revocar todos los JWT emitidos antes (claim "tv")
+    @Column(name = "token_version", nullable = false)
+    private long tokenVersion;
+    
     @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Task> tasks;
     
@@ -88,6 +100,9 @@ public class User {
     public boolean isEnabled() { return enabled; }
     public void setEnabled(boolean enabled) { this.enabled = enabled; }
     
+    public long getTokenVersion() { return tokenVersion; }
+    public void setTokenVersion(long tokenVersion) { this.tokenVersion = tokenVersion; }
+    
     public List<Task> getTasks() { return tasks; }
     public void setTasks(List<Task> tasks) { this.tasks = tasks; }
     
@@ -98,6 +113,11 @@ public class User {
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
     public String getFullName() {
+        return fullNameOf(firstName, lastName, username);
+    }
+    
+    // Reutilizado por las proyecciones de lectura que no materializan la entidad User
+    public static String fullNameOf(String firstName, String lastName, String username) {
         if (firstName != null && lastName != null) {
             return firstName + " " + lastName;
         } else if (firstName != null) {
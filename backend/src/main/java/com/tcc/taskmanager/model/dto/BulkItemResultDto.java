@@ -0,0 +1,47 @@
+package com.tcc.taskmanager.model.dto;
+
+/**
+ * 📦 Resultado de un elemento dentro de una operación masiva
+ * index es la posición del elemento en la petición original
+ */
+public class BulkItemResultDto<T> {
+    
+    private int index;
+    private Long id;
+    private boolean success;
+    private String error;
+    private T data;
+    
+    public BulkItemResultDto() {}
+    
+    public BulkItemResultDto(int index, Long id, boolean success, String error, T data) {
+        this.index = index;
+        this.id = id;
+        this.success = success;
+        this.error = error;
+        this.data = data;
+    }
+    
+    public static <T> BulkItemResultDto<T> succeeded(int index, Long id, T data) {
+        return new BulkItemResultDto<>(index, id, true, null, data);
+    }
+    
+    public static <T> BulkItemResultDto<T> failed(int index, Long id, String error) {
+        return new BulkItemResultDto<>(index, id, false, error, null);
+    }
+    
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+    
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+    
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+    
+    public T getData() { return data; }
+    public void setData(T data) { this.data = data; }
+}
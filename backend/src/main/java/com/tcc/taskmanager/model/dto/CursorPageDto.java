@@ -0,0 +1,36 @@
+package com.tcc.taskmanager.model.dto;
+
+import java.util.List;
+
+/**
+ * 📄 Página basada en cursor (keyset pagination)
+ * nextCursor es opaco para el cliente y es null cuando no hay más resultados
+ */
+public class CursorPageDto<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int limit;
+
+    public CursorPageDto() {}
+
+    public CursorPageDto(List<T> items, String nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.hasMore = nextCursor != null;
+        this.limit = limit;
+    }
+
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
@@ -8,6 +8,8 @@ public class JwtResponseDto {
     private String username;
     private String email;
     private String role;
+    // Token opaco de un solo uso para POST /auth/refresh
+    private String refreshToken;
     
     public JwtResponseDto() {}
     
@@ -43,4 +45,7 @@ public class JwtResponseDto {
     
     public String getRole() { return role; }
     public void setRole(String role) { this.role = role; }
+    
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
 }
\ No newline at end of file
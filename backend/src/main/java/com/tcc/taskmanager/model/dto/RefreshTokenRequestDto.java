@@ -0,0 +1,17 @@
+package com.tcc.taskmanager.model.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * 🔄 Cuerpo de POST /auth/refresh
+ */
+public class RefreshTokenRequestDto {
+    
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+    
+    public RefreshTokenRequestDto() {}
+    
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
+}
@@ -0,0 +1,43 @@
+package com.tcc.taskmanager.model.dto;
+
+import java.util.List;
+
+/**
+ * 🔄 Cambios de tareas posteriores a una marca de sincronización.
+ * fullResync indica que el cliente debe reemplazar su copia local en lugar de aplicar un delta;
+ * mientras hasMore sea true se debe seguir pidiendo con el nuevo watermark.
+ */
+public class TaskChangesDto {
+
+    private List<TaskDto> changed;
+    private List<TaskTombstoneDto> deleted;
+    private String watermark;
+    private boolean hasMore;
+    private boolean fullResync;
+
+    public TaskChangesDto() {}
+
+    public TaskChangesDto(List<TaskDto> changed, List<TaskTombstoneDto> deleted, String watermark,
+                          boolean hasMore, boolean fullResync) {
+        this.changed = changed;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+        this.fullResync = fullResync;
+    }
+
+    public List<TaskDto> getChanged() { return changed; }
+    public void setChanged(List<TaskDto> changed) { this.changed = changed; }
+
+    public List<TaskTombstoneDto> getDeleted() { return deleted; }
+    public void setDeleted(List<TaskTombstoneDto> deleted) { this.deleted = deleted; }
+
+    public String getWatermark() { return watermark; }
+    public void setWatermark(String watermark) { this.watermark = watermark; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public boolean isFullResync() { return fullResync; }
+    public void setFullResync(boolean fullResync) { this.fullResync = fullResync; }
+}
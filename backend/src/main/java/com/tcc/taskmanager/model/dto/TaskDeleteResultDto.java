@@ -0,0 +1,23 @@
+package com.tcc.taskmanager.model.dto;
+
+/**
+ * 🗑️ Resultado de borrar una tarea: filas eliminadas por el DELETE acotado al usuario
+ */
+public class TaskDeleteResultDto {
+
+    private Long id;
+    private long affected;
+
+    public TaskDeleteResultDto() {}
+
+    public TaskDeleteResultDto(Long id, long affected) {
+        this.id = id;
+        this.affected = affected;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public long getAffected() { return affected; }
+    public void setAffected(long affected) { this.affected = affected; }
+}
@@ -1,7 +1,9 @@
 package com.tcc.taskmanager.model.dto;
 
+import com.tcc.taskmanager.model.Task;
 import com.tcc.taskmanager.model.TaskStatus;
 import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.User;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -28,8 +30,58 @@ public class TaskDto {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     
+    private Long version;
+    // Versión de la colección del usuario en la que se escribió la tarea por última vez (posición en /tasks/changes)
+    private Long syncVersion;
+    
     public TaskDto() {}
     
+    /**
+     * Constructor de proyección usado por las consultas JPQL "SELECT new ..." de TaskRepository.
+     * Recibe las columnas del usuario ya unidas para no hidratar Task ni User.
+     */
+    public TaskDto(Long id, String title, String description, TaskStatus status, Priority priority,
+                   LocalDateTime dueDate, LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                   Long syncVersion, Long userId, String username, String userFirstName, String userLastName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.dueDate = dueDate;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.syncVersion = syncVersion;
+        this.userId = userId;
+        this.userFullName = User.fullNameOf(userFirstName, userLastName, username);
+    }
+    
+    /**
+     * DTO de una entidad ya cargada (respuestas de escritura). task.getUser() es LAZY: llamar dentro de la
+     * transacción que cargó la tarea.
+     */
+    public static TaskDto from(Task task) {
+        TaskDto dto = new TaskDto();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setStatus(task.getStatus());
+        dto.setPriority(task.getPriority());
+        dto.setDueDate(task.getDueDate());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setVersion(task.getVersion());
+        dto.setSyncVersion(task.getSyncVersion());
+        
+        if (task.getUser() != null) {
+            dto.setUserId(task.getUser().getId());
+            dto.setUserFullName(task.getUser().getFullName());
+        }
+        
+        return dto;
+    }
+    
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
@@ -59,4 +111,10 @@ public class TaskDto {
     
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    
+    public Long getSyncVersion() { return syncVersion; }
+    public void setSyncVersion(Long syncVersion) { this.syncVersion = syncVersion; }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.tcc.taskmanager.model.dto;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 🧭 Criterios combinables de GET /tasks/query
+ * Todos son opcionales; los conjuntos vacíos o nulos no filtran
+ */
+public class TaskQueryDto {
+    
+    private Set<TaskStatus> status;
+    private Set<Priority> priority;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueFrom;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime dueTo;
+    
+    // Texto libre resuelto contra el índice de búsqueda
+    private String q;
+    
+    // createdAt | updatedAt | dueDate | priority | title; sin valor ordena por relevancia si hay texto
+    private String sort;
+    private String direction;
+    
+    private Integer limit;
+    
+    public TaskQueryDto() {}
+    
+    public Set<TaskStatus> getStatus() { return status; }
+    public void setStatus(Set<TaskStatus> status) { this.status = status; }
+    
+    public Set<Priority> getPriority() { return priority; }
+    public void setPriority(Set<Priority> priority) { this.priority = priority; }
+    
+    public LocalDateTime getDueFrom() { return dueFrom; }
+    public void setDueFrom(LocalDateTime dueFrom) { this.dueFrom = dueFrom; }
+    
+    public LocalDateTime getDueTo() { return dueTo; }
+    public void setDueTo(LocalDateTime dueTo) { this.dueTo = dueTo; }
+    
+    public String getQ() { return q; }
+    public void setQ(String q) { this.q = q; }
+    
+    public String getSort() { return sort; }
+    public void setSort(String sort) { this.sort = sort; }
+    
+    public String getDirection() { return direction; }
+    public void setDirection(String direction) { this.direction = direction; }
+    
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) { this.limit = limit; }
+}
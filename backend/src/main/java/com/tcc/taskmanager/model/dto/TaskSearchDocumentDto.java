@@ -0,0 +1,23 @@
+package com.tcc.taskmanager.model.dto;
+
+/**
+ * 🔎 Columnas mínimas de una tarea para construir el índice de búsqueda
+ */
+public class TaskSearchDocumentDto {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+
+    public TaskSearchDocumentDto(Long id, String title, String description) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getDescription() { return description; }
+}
@@ -1,11 +1,27 @@
 package com.tcc.taskmanager.model.dto;
 
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
 public class TaskStatsDto {
     
     private long totalTasks;
     private long todoTasks;
     private long inProgressTasks;
     private long doneTasks;
+    private long inReviewTasks;
+    private long cancelledTasks;
+    
+    // Tareas abiertas (ni DONE ni CANCELLED) vencidas o que vencen dentro de la ventana configurada
+    private long overdueTasks;
+    private long dueSoonTasks;
+    
+    private Map<TaskStatus, Long> byStatus = new EnumMap<>(TaskStatus.class);
+    private Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+    private Map<TaskStatus, Map<Priority, Long>> statusPriorityMatrix = new EnumMap<>(TaskStatus.class);
     
     public TaskStatsDto() {}
     
@@ -27,4 +43,27 @@ public class TaskStatsDto {
     
     public long getDoneTasks() { return doneTasks; }
     public void setDoneTasks(long doneTasks) { this.doneTasks = doneTasks; }
+    
+    public long getInReviewTasks() { return inReviewTasks; }
+    public void setInReviewTasks(long inReviewTasks) { this.inReviewTasks = inReviewTasks; }
+    
+    public long getCancelledTasks() { return cancelledTasks; }
+    public void setCancelledTasks(long cancelledTasks) { this.cancelledTasks = cancelledTasks; }
+    
+    public long getOverdueTasks() { return overdueTasks; }
+    public void setOverdueTasks(long overdueTasks) { this.overdueTasks = overdueTasks; }
+    
+    public long getDueSoonTasks() { return dueSoonTasks; }
+    public void setDueSoonTasks(long dueSoonTasks) { this.dueSoonTasks = dueSoonTasks; }
+    
+    public Map<TaskStatus, Long> getByStatus() { return byStatus; }
+    public void setByStatus(Map<TaskStatus, Long> byStatus) { this.byStatus = byStatus; }
+    
+    public Map<Priority, Long> getByPriority() { return byPriority; }
+    public void setByPriority(Map<Priority, Long> byPriority) { this.byPriority = byPriority; }
+    
+    public Map<TaskStatus, Map<Priority, Long>> getStatusPriorityMatrix() { return statusPriorityMatrix; }
+    public void setStatusPriorityMatrix(Map<TaskStatus, Map<Priority, Long>> statusPriorityMatrix) {
+        this.statusPriorityMatrix = statusPriorityMatrix;
+    }
 }
\ No newline at end of file
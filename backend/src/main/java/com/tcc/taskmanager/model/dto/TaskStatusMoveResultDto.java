@@ -0,0 +1,32 @@
+package com.tcc.taskmanager.model.dto;
+
+import com.tcc.taskmanager.model.TaskStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 🔀 Resultado de mover en bloque las tareas de un filtro a un estado
+ */
+public class TaskStatusMoveResultDto {
+
+    private TaskStatus status;
+    private long affected;
+    private Map<TaskStatus, Long> movedFrom = new EnumMap<>(TaskStatus.class);
+
+    public TaskStatusMoveResultDto() {}
+
+    public TaskStatusMoveResultDto(TaskStatus status, long affected) {
+        this.status = status;
+        this.affected = affected;
+    }
+
+    public TaskStatus getStatus() { return status; }
+    public void setStatus(TaskStatus status) { this.status = status; }
+
+    public long getAffected() { return affected; }
+    public void setAffected(long affected) { this.affected = affected; }
+
+    public Map<TaskStatus, Long> getMovedFrom() { return movedFrom; }
+    public void setMovedFrom(Map<TaskStatus, Long> movedFrom) { this.movedFrom = movedFrom; }
+}
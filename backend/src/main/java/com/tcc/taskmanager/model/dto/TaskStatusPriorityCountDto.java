@@ -0,0 +1,26 @@
+package com.tcc.taskmanager.model.dto;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+
+/**
+ * 📊 Fila agregada (status, priority) de conteo de tareas (GROUP BY sobre tasks o fila de task_counters)
+ */
+public class TaskStatusPriorityCountDto {
+
+    private final TaskStatus status;
+    private final Priority priority;
+    private final long count;
+
+    public TaskStatusPriorityCountDto(TaskStatus status, Priority priority, Long count) {
+        this.status = status;
+        this.priority = priority;
+        this.count = count != null ? count : 0;
+    }
+
+    public TaskStatus getStatus() { return status; }
+
+    public Priority getPriority() { return priority; }
+
+    public long getCount() { return count; }
+}
@@ -0,0 +1,30 @@
+package com.tcc.taskmanager.model.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🪦 Tarea eliminada informada por GET /tasks/changes
+ */
+public class TaskTombstoneDto {
+
+    private Long id;
+    private LocalDateTime deletedAt;
+    private Long syncVersion;
+
+    public TaskTombstoneDto() {}
+
+    public TaskTombstoneDto(Long id, LocalDateTime deletedAt, Long syncVersion) {
+        this.id = id;
+        this.deletedAt = deletedAt;
+        this.syncVersion = syncVersion;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(LocalDateTime deletedAt) { this.deletedAt = deletedAt; }
+
+    public Long getSyncVersion() { return syncVersion; }
+    public void setSyncVersion(Long syncVersion) { this.syncVersion = syncVersion; }
+}
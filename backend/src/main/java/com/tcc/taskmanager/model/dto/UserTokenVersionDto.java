@@ -0,0 +1,19 @@
+package com.tcc.taskmanager.model.dto;
+
+/**
+ * 🔐 Versión vigente de los tokens de un usuario
+ */
+public class UserTokenVersionDto {
+
+    private final Long userId;
+    private final long tokenVersion;
+
+    public UserTokenVersionDto(Long userId, Long tokenVersion) {
+        this.userId = userId;
+        this.tokenVersion = tokenVersion != null ? tokenVersion : 0;
+    }
+
+    public Long getUserId() { return userId; }
+
+    public long getTokenVersion() { return tokenVersion; }
+}
@@ -0,0 +1,32 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    
+    // Búsqueda por el índice único del hash; el usuario viaja en el mismo SELECT para emitir el access token
+    @Query("SELECT r FROM RefreshToken r JOIN FETCH r.user WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHash(@Param("tokenHash") String tokenHash);
+    
+    // Solo una petición puede consumir el token: la segunda ve 0 filas afectadas
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.id = :id AND r.revokedAt IS NULL")
+    int revoke(@Param("id") Long id, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :before")
+    int deleteByExpiresAtBefore(@Param("before") LocalDateTime before);
+}
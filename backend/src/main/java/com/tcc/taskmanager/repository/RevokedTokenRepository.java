@@ -0,0 +1,25 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+    
+    // Carga inicial y recargas incrementales del registro en memoria: solo lo que todavía no expiró
+    List<RevokedToken> findByExpiresAtAfter(LocalDateTime now);
+    
+    @Query("SELECT r FROM RevokedToken r WHERE r.revokedAt >= :since AND r.expiresAt > :now")
+    List<RevokedToken> findActiveRevokedSince(@Param("since") LocalDateTime since, @Param("now") LocalDateTime now);
+    
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :before")
+    int deleteByExpiresAtBefore(@Param("before") LocalDateTime before);
+}
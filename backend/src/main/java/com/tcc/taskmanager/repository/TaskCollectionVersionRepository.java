@@ -0,0 +1,34 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.TaskCollectionVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TaskCollectionVersionRepository extends JpaRepository<TaskCollectionVersion, Long> {
+    
+    @Modifying
+    @Query("UPDATE TaskCollectionVersion v SET v.version = v.version + 1 WHERE v.userId = :userId")
+    int increment(@Param("userId") Long userId);
+    
+    // Lectura escalar: no pasa por la entidad que pudiera haber en el contexto de persistencia tras increment
+    @Query("SELECT v.version FROM TaskCollectionVersion v WHERE v.userId = :userId")
+    Optional<Long> findVersionByUserId(@Param("userId") Long userId);
+    
+    // Toma la fila como cerrojo del usuario sin avanzar la versión (reconciliación y siembra de contadores)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM TaskCollectionVersion v WHERE v.userId = :userId")
+    Optional<TaskCollectionVersion> findByUserIdForUpdate(@Param("userId") Long userId);
+    
+    // INSERT explícito: save() con id asignado haría merge y podría pisar una versión creada en paralelo
+    @Modifying
+    @Query(value = "INSERT INTO task_collection_versions (user_id, version) VALUES (:userId, 0)", nativeQuery = true)
+    int insert(@Param("userId") Long userId);
+}
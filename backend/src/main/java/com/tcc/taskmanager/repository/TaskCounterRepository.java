@@ -0,0 +1,33 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskCounter;
+import com.tcc.taskmanager.model.TaskStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, Long> {
+    
+    List<TaskCounter> findByUserId(Long userId);
+    
+    // Bloquea las filas del usuario durante la reconciliación para que ningún ajuste concurrente se pierda
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TaskCounter c WHERE c.userId = :userId")
+    List<TaskCounter> findByUserIdForUpdate(@Param("userId") Long userId);
+    
+    @Modifying
+    @Query("UPDATE TaskCounter c SET c.taskCount = c.taskCount + :delta " +
+           "WHERE c.userId = :userId AND c.status = :status AND c.priority = :priority")
+    int adjust(@Param("userId") Long userId,
+               @Param("status") TaskStatus status,
+               @Param("priority") Priority priority,
+               @Param("delta") long delta);
+}
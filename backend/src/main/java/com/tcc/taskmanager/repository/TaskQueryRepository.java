@@ -0,0 +1,53 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskQueryDto;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Fragmento de TaskRepository para consultas multi-criterio construidas con Criteria API
+ */
+public interface TaskQueryRepository {
+    
+    /**
+     * Compila todos los criterios en una sola sentencia SQL proyectada a TaskDto.
+     * candidateIds restringe el resultado (p. ej. coincidencias de texto) cuando no es null.
+     */
+    List<TaskDto> queryDtos(Long userId, TaskQueryDto query, Collection<Long> candidateIds, int limit);
+    
+    /**
+     * Conteo (status, priority) de las tareas que cumplen los filtros y que moveToStatus cambiaría
+     */
+    List<TaskStatusPriorityCountDto> countMovable(Long userId, TaskQueryDto filter, Collection<Long> candidateIds,
+                                                  TaskStatus target);
+    
+    /**
+     * Un único UPDATE sobre todas las tareas que cumplen los filtros y aún no están en target
+     */
+    int moveToStatus(Long userId, TaskQueryDto filter, Collection<Long> candidateIds,
+                     TaskStatus target, LocalDateTime updatedAt, long syncVersion);
+    
+    /**
+     * UPDATE del estado acotado al usuario que devuelve, en la misma sentencia, la tarea como quedó
+     * y su estado anterior. Vacío si la tarea no es del usuario o ya estaba en ese estado.
+     */
+    Optional<TaskStatusChange> updateStatusReturning(Long id, Long userId, TaskStatus status, LocalDateTime updatedAt,
+                                                     long syncVersion);
+    
+    /**
+     * DELETE acotado al usuario que devuelve la celda (status, priority) que ocupaba la tarea borrada.
+     * Vacío si la tarea no existe o no es del usuario.
+     */
+    Optional<TaskStatusPriorityCountDto> deleteReturning(Long id, Long userId);
+    
+    /**
+     * Tarea tras el cambio de estado y el estado que tenía antes de él
+     */
+    record TaskStatusChange(TaskDto task, TaskStatus previousStatus) {}
+}
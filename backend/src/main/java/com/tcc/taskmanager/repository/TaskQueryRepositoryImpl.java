@@ -0,0 +1,231 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskQueryDto;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.dialect.SQLServerDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public class TaskQueryRepositoryImpl implements TaskQueryRepository {
+    
+    // ✏️ DML CON RESULTADO - SQL Server devuelve las filas tocadas con OUTPUT deleted.*; el resto de bases
+    // (H2 en tests y réplica local) con SELECT ... FROM OLD TABLE (...). deleted / OLD TABLE = fila antes del cambio.
+    private static final String STATUS_CHANGE_COLUMNS =
+        "%1$s.id AS id, %1$s.title AS title, %1$s.description AS description, %1$s.status AS previous_status, " +
+        "%1$s.priority AS priority, %1$s.due_date AS due_date, %1$s.created_at AS created_at, " +
+        "%1$s.version AS version, u.id AS user_id, u.username AS username, u.first_name AS first_name, " +
+        "u.last_name AS last_name";
+    
+    private static final String SQLSERVER_UPDATE_STATUS =
+        "UPDATE t SET t.status = :status, t.updated_at = :updatedAt, t.version = t.version + 1, " +
+        "t.sync_version = :syncVersion " +
+        "OUTPUT " + STATUS_CHANGE_COLUMNS.formatted("deleted") + " " +
+        "FROM tasks t JOIN users u ON u.id = t.user_id " +
+        "WHERE t.id = :id AND t.user_id = :userId AND t.status <> :status";
+    
+    private static final String OLD_TABLE_UPDATE_STATUS =
+        "SELECT " + STATUS_CHANGE_COLUMNS.formatted("o") + " " +
+        "FROM OLD TABLE (UPDATE tasks SET status = :status, updated_at = :updatedAt, version = version + 1, " +
+        "sync_version = :syncVersion " +
+        "WHERE id = :id AND user_id = :userId AND status <> :status) o JOIN users u ON u.id = o.user_id";
+    
+    private static final String SQLSERVER_DELETE =
+        "DELETE FROM tasks OUTPUT deleted.status AS status, deleted.priority AS priority " +
+        "WHERE id = :id AND user_id = :userId";
+    
+    private static final String OLD_TABLE_DELETE =
+        "SELECT o.status AS status, o.priority AS priority " +
+        "FROM OLD TABLE (DELETE FROM tasks WHERE id = :id AND user_id = :userId) o";
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public List<TaskDto> queryDtos(Long userId, TaskQueryDto query, Collection<Long> candidateIds, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> cq = cb.createQuery(TaskDto.class);
+        Root<Task> task = cq.from(Task.class);
+        Join<Task, User> user = task.join("user");
+        
+        cq.select(cb.construct(TaskDto.class,
+            task.get("id"), task.get("title"), task.get("description"), task.get("status"),
+            task.get("priority"), task.get("dueDate"), task.get("createdAt"), task.get("updatedAt"),
+            task.get("version"), task.get("syncVersion"), user.get("id"), user.get("username"), user.get("firstName"), user.get("lastName")));
+        
+        List<Predicate> predicates = filterPredicates(cb, task, userId, query, candidateIds);
+        cq.where(predicates.toArray(new Predicate[0]));
+        
+        // Sin sort explícito: con candidatos de texto el orden por relevancia lo aplica el servicio,
+        // sin ellos se usa el mismo orden que el listado (más nuevas primero)
+        if (query.getSort() != null) {
+            boolean ascending = "asc".equalsIgnoreCase(query.getDirection());
+            Expression<?> sortExpression = sortExpression(cb, task, query.getSort());
+            cq.orderBy(order(cb, sortExpression, ascending), order(cb, task.get("id"), ascending));
+        } else if (candidateIds == null) {
+            cq.orderBy(cb.desc(task.get("createdAt")), cb.desc(task.get("id")));
+        }
+        
+        return entityManager.createQuery(cq)
+            .setMaxResults(limit)
+            .getResultList();
+    }
+    
+    @Override
+    public List<TaskStatusPriorityCountDto> countMovable(Long userId, TaskQueryDto filter,
+                                                         Collection<Long> candidateIds, TaskStatus target) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskStatusPriorityCountDto> cq = cb.createQuery(TaskStatusPriorityCountDto.class);
+        Root<Task> task = cq.from(Task.class);
+        
+        List<Predicate> predicates = filterPredicates(cb, task, userId, filter, candidateIds);
+        predicates.add(cb.notEqual(task.get("status"), target));
+        cq.select(cb.construct(TaskStatusPriorityCountDto.class,
+                task.get("status"), task.get("priority"), cb.count(task)))
+            .where(predicates.toArray(new Predicate[0]))
+            .groupBy(task.get("status"), task.get("priority"));
+        
+        return entityManager.createQuery(cq).getResultList();
+    }
+    
+    @Override
+    public int moveToStatus(Long userId, TaskQueryDto filter, Collection<Long> candidateIds,
+                            TaskStatus target, LocalDateTime updatedAt, long syncVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Task> update = cb.createCriteriaUpdate(Task.class);
+        Root<Task> task = update.from(Task.class);
+        
+        List<Predicate> predicates = filterPredicates(cb, task, userId, filter, candidateIds);
+        predicates.add(cb.notEqual(task.get("status"), target));
+        update.set(task.<TaskStatus>get("status"), target)
+            .set(task.<LocalDateTime>get("updatedAt"), updatedAt)
+            .set(task.<Long>get("version"), cb.sum(task.<Long>get("version"), 1L))
+            .set(task.<Long>get("syncVersion"), syncVersion)
+            .where(predicates.toArray(new Predicate[0]));
+        
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    @Override
+    public Optional<TaskStatusChange> updateStatusReturning(Long id, Long userId, TaskStatus status,
+                                                            LocalDateTime updatedAt, long syncVersion) {
+        List<Object[]> rows = dmlQuery(isSqlServer() ? SQLSERVER_UPDATE_STATUS : OLD_TABLE_UPDATE_STATUS)
+            .setParameter("id", id)
+            .setParameter("userId", userId)
+            .setParameter("status", status.name())
+            .setParameter("updatedAt", updatedAt)
+            .setParameter("syncVersion", syncVersion)
+            .addScalar("id", Long.class)
+            .addScalar("title", String.class)
+            .addScalar("description", String.class)
+            .addScalar("previous_status", String.class)
+            .addScalar("priority", String.class)
+            .addScalar("due_date", LocalDateTime.class)
+            .addScalar("created_at", LocalDateTime.class)
+            .addScalar("version", Long.class)
+            .addScalar("user_id", Long.class)
+            .addScalar("username", String.class)
+            .addScalar("first_name", String.class)
+            .addScalar("last_name", String.class)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = rows.get(0);
+        TaskDto task = new TaskDto((Long) row[0], (String) row[1], (String) row[2], status,
+            Priority.valueOf((String) row[4]), (LocalDateTime) row[5], (LocalDateTime) row[6], updatedAt,
+            (Long) row[7] + 1, syncVersion, (Long) row[8], (String) row[9], (String) row[10], (String) row[11]);
+        return Optional.of(new TaskStatusChange(task, TaskStatus.valueOf((String) row[3])));
+    }
+    
+    @Override
+    public Optional<TaskStatusPriorityCountDto> deleteReturning(Long id, Long userId) {
+        List<Object[]> rows = dmlQuery(isSqlServer() ? SQLSERVER_DELETE : OLD_TABLE_DELETE)
+            .setParameter("id", id)
+            .setParameter("userId", userId)
+            .addScalar("status", String.class)
+            .addScalar("priority", String.class)
+            .getResultList();
+        return rows.stream().findFirst().map(row ->
+            new TaskStatusPriorityCountDto(TaskStatus.valueOf((String) row[0]), Priority.valueOf((String) row[1]), 1L));
+    }
+    
+    // Para Hibernate es una consulta nativa más: se declara que toca tasks para que vacíe antes los cambios pendientes
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> dmlQuery(String sql) {
+        NativeQuery<Object[]> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.addSynchronizedEntityClass(Task.class);
+        return query;
+    }
+    
+    private boolean isSqlServer() {
+        return entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+            .getJdbcServices().getDialect() instanceof SQLServerDialect;
+    }
+    
+    // Filtros comunes a lecturas y escrituras; el usuario se compara contra la FK, sin JOIN
+    private List<Predicate> filterPredicates(CriteriaBuilder cb, Root<Task> task, Long userId,
+                                             TaskQueryDto query, Collection<Long> candidateIds) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(task.get("user").get("id"), userId));
+        if (query.getStatus() != null && !query.getStatus().isEmpty()) {
+            predicates.add(task.get("status").in(query.getStatus()));
+        }
+        if (query.getPriority() != null && !query.getPriority().isEmpty()) {
+            predicates.add(task.get("priority").in(query.getPriority()));
+        }
+        if (query.getDueFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(task.get("dueDate"), query.getDueFrom()));
+        }
+        if (query.getDueTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(task.get("dueDate"), query.getDueTo()));
+        }
+        if (candidateIds != null) {
+            predicates.add(task.get("id").in(candidateIds));
+        }
+        return predicates;
+    }
+    
+    private Expression<?> sortExpression(CriteriaBuilder cb, Root<Task> task, String sort) {
+        switch (sort) {
+            case "createdAt":
+            case "updatedAt":
+            case "dueDate":
+            case "title":
+                return task.get(sort);
+            case "priority":
+                // La columna guarda el nombre del enum: se ordena por severidad, no alfabéticamente
+                return cb.<Integer>selectCase()
+                    .when(cb.equal(task.get("priority"), Priority.LOW), 0)
+                    .when(cb.equal(task.get("priority"), Priority.MEDIUM), 1)
+                    .when(cb.equal(task.get("priority"), Priority.HIGH), 2)
+                    .otherwise(3);
+            default:
+                throw new RuntimeException("Campo de ordenamiento inválido: " + sort);
+        }
+    }
+    
+    private Order order(CriteriaBuilder cb, Expression<?> expression, boolean ascending) {
+        return ascending ? cb.asc(expression) : cb.desc(expression);
+    }
+}
@@ -3,22 +3,118 @@ package com.tcc.taskmanager.repository;
 import com.tcc.taskmanager.model.Task;
 import com.tcc.taskmanager.model.TaskStatus;
 import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskSearchDocumentDto;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskQueryRepository {
     
-    List<Task> findByUserId(Long userId);
+    // El usuario viaja en el mismo SELECT: las respuestas de escritura incluyen su nombre
+    @EntityGraph(attributePaths = "user")
+    Optional<Task> findByIdAndUserId(Long id, Long userId);
     
-    List<Task> findByUserIdAndStatus(Long userId, TaskStatus status);
+    @EntityGraph(attributePaths = "user")
+    List<Task> findByUserIdAndIdIn(Long userId, Collection<Long> ids);
     
-    List<Task> findByUserIdAndPriority(Long userId, Priority priority);
+    @Modifying
+    @Query("DELETE FROM Task t WHERE t.user.id = :userId AND t.id IN :ids")
+    int deleteByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
     
-    List<Task> findByUserIdAndTitleContainingIgnoreCase(Long userId, String title);
+    // 📖 READ MODEL - proyecciones a TaskDto con los datos del usuario unidos en la misma sentencia.
+    // Los resultados no son entidades gestionadas: no se hidrata Task ni se dispara la carga LAZY de User.
+    String TASK_DTO_SELECT = "SELECT new com.tcc.taskmanager.model.dto.TaskDto(" +
+            "t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.updatedAt, t.version, " +
+            "t.syncVersion, u.id, u.username, u.firstName, u.lastName) " +
+            "FROM Task t JOIN t.user u ";
     
-    Optional<Task> findByIdAndUserId(Long id, Long userId);
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId")
+    List<TaskDto> findDtosByUserId(@Param("userId") Long userId);
+    
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.status = :status")
+    List<TaskDto> findDtosByUserIdAndStatus(@Param("userId") Long userId, @Param("status") TaskStatus status);
+    
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.priority = :priority")
+    List<TaskDto> findDtosByUserIdAndPriority(@Param("userId") Long userId, @Param("priority") Priority priority);
+    
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.id IN :ids")
+    List<TaskDto> findDtosByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
+    
+    @Query(TASK_DTO_SELECT + "WHERE t.id = :id AND u.id = :userId")
+    Optional<TaskDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+    
+    // 📄 KEYSET PAGINATION - filas estrictamente posteriores al cursor (createdAt, id), más nuevas primero
+    // La cota simple sobre createdAt es redundante, pero es la que permite buscar por rango en el índice;
+    // la disyunción sola solo deja usar user_id (ver TaskRepositoryQueryPlanTest)
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskDto> findDtoPageByUserId(@Param("userId") Long userId,
+                                      @Param("createdAt") LocalDateTime createdAt,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+    
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.status = :status " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskDto> findDtoPageByUserIdAndStatus(@Param("userId") Long userId,
+                                               @Param("status") TaskStatus status,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+    
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.priority = :priority " +
+           "AND t.createdAt <= :createdAt AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<TaskDto> findDtoPageByUserIdAndPriority(@Param("userId") Long userId,
+                                                 @Param("priority") Priority priority,
+                                                 @Param("createdAt") LocalDateTime createdAt,
+                                                 @Param("id") Long id,
+                                                 Pageable pageable);
+    
+    // 🔄 SYNC - cambios estrictamente posteriores a la marca (syncVersion, id) y hasta untilVersion, en orden de commit
+    @Query(TASK_DTO_SELECT + "WHERE u.id = :userId AND t.syncVersion <= :untilVersion " +
+           "AND t.syncVersion >= :syncVersion AND (t.syncVersion > :syncVersion OR (t.syncVersion = :syncVersion AND t.id > :id)) " +
+           "ORDER BY t.syncVersion ASC, t.id ASC")
+    List<TaskDto> findChangedDtosByUserId(@Param("userId") Long userId,
+                                          @Param("syncVersion") long syncVersion,
+                                          @Param("id") Long id,
+                                          @Param("untilVersion") long untilVersion,
+                                          Pageable pageable);
+    
+    // 📊 STATS - un único GROUP BY (status, priority); fuente de verdad para sembrar y reconciliar task_counters
+    @Query("SELECT new com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto(t.status, t.priority, COUNT(t)) " +
+           "FROM Task t WHERE t.user.id = :userId GROUP BY t.status, t.priority")
+    List<TaskStatusPriorityCountDto> countByStatusAndPriority(@Param("userId") Long userId);
+    
+    // Bloquea las tareas del usuario antes de recalcular sus contadores: mismo orden que las escrituras (tasks, luego contadores)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Task t WHERE t.user.id = :userId")
+    List<Long> lockIdsByUserId(@Param("userId") Long userId);
+    
+    // Vencidas y próximas a vencer dependen del reloj: rangos sobre due_date en lugar de contadores
+    
+    long countByUserIdAndStatusInAndDueDateBefore(Long userId, Collection<TaskStatus> statuses, LocalDateTime before);
+    
+    long countByUserIdAndStatusInAndDueDateBetween(Long userId, Collection<TaskStatus> statuses,
+                                                   LocalDateTime from, LocalDateTime to);
+    
+    // 🔎 SEARCH INDEX - solo las columnas de texto necesarias para (re)construir el índice del usuario
+    @Query("SELECT new com.tcc.taskmanager.model.dto.TaskSearchDocumentDto(t.id, t.title, t.description) " +
+           "FROM Task t WHERE t.user.id = :userId")
+    List<TaskSearchDocumentDto> findSearchDocumentsByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
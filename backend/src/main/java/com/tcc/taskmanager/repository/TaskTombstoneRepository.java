@@ -0,0 +1,32 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.TaskTombstone;
+import com.tcc.taskmanager.model.dto.TaskTombstoneDto;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, Long> {
+    
+    // Misma marca y mismo orden que TaskRepository.findChangedDtosByUserId: se paginan juntos
+    @Query("SELECT new com.tcc.taskmanager.model.dto.TaskTombstoneDto(t.taskId, t.deletedAt, t.syncVersion) " +
+           "FROM TaskTombstone t WHERE t.userId = :userId AND t.syncVersion <= :untilVersion " +
+           "AND t.syncVersion >= :syncVersion AND (t.syncVersion > :syncVersion OR (t.syncVersion = :syncVersion AND t.taskId > :taskId)) " +
+           "ORDER BY t.syncVersion, t.taskId")
+    List<TaskTombstoneDto> findDtosByUserIdAfter(@Param("userId") Long userId,
+                                                 @Param("syncVersion") long syncVersion,
+                                                 @Param("taskId") Long taskId,
+                                                 @Param("untilVersion") long untilVersion,
+                                                 Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM TaskTombstone t WHERE t.deletedAt < :before")
+    int deleteByDeletedAtBefore(@Param("before") LocalDateTime before);
+}
@@ -1,11 +1,16 @@
 package com.tcc.taskmanager.repository;
 
 import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.UserTokenVersionDto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -19,7 +24,33 @@ public interface UserRepository extends JpaRepository<User, Long> {
     // 🔍 MÉTODO PARA BUSCAR POR EMAIL (si no existe, agrégalo)
     Optional<User> findByEmail(String email);
     
-    // 🔍 MÉTODO COMBO - Buscar por email O username en una sola query
+    // 🔍 MÉTODO COMBO - Buscar por email O username en una sola query (login).
+    // Puede devolver dos filas si el email de un usuario coincide con el username de otro.
+    // Transacción de escritura: con réplica de lectura, las credenciales se validan siempre contra el primario
+    @Transactional
     @Query("SELECT u FROM User u WHERE u.email = :emailOrUsername OR u.username = :emailOrUsername")
-    Optional<User> findByEmailOrUsername(@Param("emailOrUsername") String emailOrUsername);
+    List<User> findByEmailOrUsername(@Param("emailOrUsername") String emailOrUsername);
+    
+    // 👥 ALTA MASIVA - cuáles de los valores ya existen, en una consulta por columna
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+    
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+    
+    @Query("SELECT u.id FROM User u ORDER BY u.id")
+    List<Long> findAllIds();
+    
+    // 🔑 Re-hash al coste vigente: solo si el hash sigue siendo el verificado en el login. Si la contraseña
+    // cambió entretanto, no toca nada (0 filas) y no pisa el hash nuevo ni el token_version
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :id AND u.password = :oldPassword")
+    int upgradePassword(@Param("id") Long id, @Param("oldPassword") String oldPassword,
+                        @Param("newPassword") String newPassword);
+    
+    // 🔐 Solo los usuarios que alguna vez revocaron sus tokens: el resto tiene versión 0
+    @Query("SELECT new com.tcc.taskmanager.model.dto.UserTokenVersionDto(u.id, u.tokenVersion) " +
+           "FROM User u WHERE u.tokenVersion > 0")
+    List<UserTokenVersionDto> findRevokedTokenVersions();
 }
\ No newline at end of file
@@ -1,16 +1,20 @@
 package com.tcc.taskmanager.security;
 
+import com.tcc.taskmanager.config.SecurityConfig;
+import com.tcc.taskmanager.model.Role;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -25,20 +29,57 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    // Stateless: el principal sale de los claims verificados; sin él (o con tokens sin userId) se lee users
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        for (String publicPath : SecurityConfig.PUBLIC_PATHS) {
+            if (pathMatcher.match(publicPath, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, 
                                   FilterChain filterChain) throws ServletException, IOException {
         try {
             String jwt = parseJwt(request);
-            if (jwt != null && jwtUtils.validateJwtToken(jwt)) {
-                String username = jwtUtils.getUserNameFromJwtToken(jwt);
+            if (jwt != null) {
+                // Una sola verificación (o acierto en la caché de tokens verificados) con todos los claims
+                JwtVerification token = jwtUtils.verifyAndExtract(jwt);
+                Long userId = token.getUserId();
+                Long tokenVersion = token.getTokenVersion();
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                if (!token.isValid()) {
+                    logger.debug("Rejected JWT: " + token.getStatus());
+                } else if (token.getTokenId() != null && tokenRevocationRegistry.isRevoked(token.getTokenId())) {
+                    logger.debug("Revoked JWT " + token.getTokenId());
+                } else if (userId != null && !tokenVersionRegistry.isCurrent(userId, tokenVersion != null ? tokenVersion : 0)) {
+                    logger.debug("Revoked JWT for user " + userId);
+                } else {
+                    UserDetails userDetails = stateless && userId != null && token.getRole() != null
+                        ? UserPrincipal.fromClaims(userId, token.getUsername(), token.getEmail(),
+                            Role.valueOf(token.getRole()), tokenVersion != null ? tokenVersion : 0)
+                        : userDetailsService.loadUserByUsername(token.getUsername());
+                    UsernamePasswordAuthenticationToken authentication = 
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception e) {
             logger.error("Cannot set user authentication: " + e.getMessage());
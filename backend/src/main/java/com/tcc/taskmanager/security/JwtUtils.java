@@ -1,16 +1,29 @@
 package com.tcc.taskmanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.tcc.taskmanager.model.User;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 🔐 JWT UTILITIES CLASS
@@ -22,6 +35,11 @@ public class JwtUtils {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
+    public static final String CLAIM_USER_ID = "userId";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_EMAIL = "email";
+    public static final String CLAIM_TOKEN_VERSION = "tv";
+
     @Value("${security.jwt.secret}")
     private String jwtSecret;
 
@@ -31,6 +49,54 @@ public class JwtUtils {
     @Value("${security.jwt.refresh-expiration}")
     private int refreshExpirationMs;
 
+    @Value("${security.jwt.verified-cache-max-entries:10000}")
+    private int verifiedCacheMaxEntries;
+
+    // Construidos una sola vez: la clave HMAC y el parser inmutable (thread-safe) se comparten entre peticiones
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    // Verificaciones por SHA-256 del token: cada entrada vence con el exp de su token y, llena, Caffeine
+    // desaloja las menos usadas en lugar de dejar de cachear
+    private Cache<String, JwtVerification> verifiedTokens;
+
+    @PostConstruct
+    public void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        jwtParser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(Math.max(verifiedCacheMaxEntries, 0))
+            .expireAfter(new Expiry<String, JwtVerification>() {
+                @Override
+                public long expireAfterCreate(String key, JwtVerification verification, long currentTime) {
+                    return remainingNanos(verification);
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, JwtVerification verification, long currentTime,
+                                              long currentDuration) {
+                    return remainingNanos(verification);
+                }
+
+                @Override
+                public long expireAfterRead(String key, JwtVerification verification, long currentTime,
+                                            long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+    }
+
+    // Un token sin exp (la app no los emite) no vence por tiempo: sale de la caché solo por tamaño
+    private static long remainingNanos(JwtVerification verification) {
+        Date expiration = verification.getExpiration();
+        if (expiration == null) {
+            return Long.MAX_VALUE;
+        }
+        long remainingMs = expiration.getTime() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+    }
+
     /**
      * 🔐 Generate JWT Access Token from Authentication
      */
@@ -39,6 +105,34 @@ public class JwtUtils {
         return generateTokenFromUsername(userPrincipal.getUsername());
     }
 
+    /**
+     * 🪪 Generate self-contained access token: userId, role, email and token version as claims,
+     * enough for the authentication filter to build the principal without reading users
+     */
+    public String generateUserToken(User user) {
+        return generateUserToken(UserPrincipal.create(user));
+    }
+
+    /**
+     * 🪪 Same token from an authenticated principal (login), without going back to the entity.
+     * Each token carries a random jti so it can be revoked on its own (logout)
+     */
+    public String generateUserToken(UserPrincipal principal) {
+        Date expiryDate = new Date(System.currentTimeMillis() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(principal.getUsername())
+                .claim(CLAIM_USER_ID, principal.getId())
+                .claim(CLAIM_ROLE, principal.getRole().name())
+                .claim(CLAIM_EMAIL, principal.getEmail())
+                .claim(CLAIM_TOKEN_VERSION, principal.getTokenVersion())
+                .setIssuedAt(new Date())
+                .setExpiration(expiryDate)
+                .signWith(getSigningKey(), SignatureAlgorithm.HS512)
+                .compact();
+    }
+
     /**
      * 🔄 Generate JWT Refresh Token
      */
@@ -71,8 +165,7 @@ public class JwtUtils {
      * 👤 Extract username from JWT token
      */
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody()
                 .getSubject();
@@ -82,8 +175,7 @@ public class JwtUtils {
      * ⏰ Get token expiration date
      */
     public Date getExpirationDateFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody()
                 .getExpiration();
@@ -93,23 +185,101 @@ public class JwtUtils {
      * ✅ Validate JWT token
      */
     public boolean validateJwtToken(String authToken) {
+        JwtVerification verification = verifyAndExtract(authToken);
+        if (!verification.isValid()) {
+            logger.error("JWT validation failed: {}", verification.getStatus());
+        }
+        return verification.isValid();
+    }
+
+    /**
+     * 🎫 Verify signature and expiration once and return every claim the app uses.
+     * Invalid tokens come back as a status code instead of an exception. Valid results are
+     * cached by SHA-256 of the token until the token itself expires (per-entry expiry).
+     */
+    public JwtVerification verifyAndExtract(String token) {
+        if (!StringUtils.hasText(token)) {
+            return JwtVerification.of(JwtVerification.Status.EMPTY);
+        }
+        long now = System.currentTimeMillis();
+        String key = sha256(token);
+        JwtVerification cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            // Caffeine mide con nanoTime y el exp es de reloj: en el límite manda el exp
+            if (cached.isValidAt(now)) {
+                return cached;
+            }
+            verifiedTokens.invalidate(key);
+            return JwtVerification.of(JwtVerification.Status.EXPIRED);
+        }
+        // Descarta sin lanzar excepciones lo que ni siquiera tiene forma de JWS (header.payload.signature)
+        if (!hasJwsShape(token)) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+
+        JwtVerification verification = parse(token);
+        if (verification.isValid() && verifiedCacheMaxEntries > 0) {
+            verifiedTokens.put(key, verification);
+        }
+        return verification;
+    }
+
+    // Entradas vigentes en la caché de verificaciones, tras aplicar expiraciones y desalojos pendientes
+    long cachedVerifications() {
+        verifiedTokens.cleanUp();
+        return verifiedTokens.estimatedSize();
+    }
+
+    // Camino frío: la biblioteca señala los tokens inválidos con excepciones, aquí se traducen a códigos
+    private JwtVerification parse(String token) {
         try {
-            Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .parseClaimsJws(authToken);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return JwtVerification.valid(
+                claims.getSubject(),
+                claims.get(CLAIM_USER_ID, Long.class),
+                claims.get(CLAIM_ROLE, String.class),
+                claims.get(CLAIM_EMAIL, String.class),
+                claims.get(CLAIM_TOKEN_VERSION, Long.class),
+                parseTokenId(claims.getId()),
+                claims.getExpiration()
+            );
         } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
+            return JwtVerification.of(JwtVerification.Status.EXPIRED);
+        } catch (SignatureException e) {
+            return JwtVerification.of(JwtVerification.Status.INVALID_SIGNATURE);
         } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
+            return JwtVerification.of(JwtVerification.Status.UNSUPPORTED);
+        } catch (JwtException | IllegalArgumentException e) {
+            return JwtVerification.of(JwtVerification.Status.MALFORMED);
+        }
+    }
+
+    // El jti se convierte una vez aquí: la consulta de revocación en el filtro trabaja con los dos long del UUID
+    private static UUID parseTokenId(String jti) {
+        if (jti == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(jti);
         } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
-        } catch (Exception e) {
-            logger.error("JWT validation error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean hasJwsShape(String token) {
+        int first = token.indexOf('.');
+        int second = first < 0 ? -1 : token.indexOf('.', first + 1);
+        return first > 0 && second > first + 1 && second < token.length() - 1
+            && token.indexOf('.', second + 1) < 0;
+    }
+
+    private static String sha256(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        return false;
     }
 
     /**
@@ -125,6 +295,13 @@ public class JwtUtils {
         }
     }
 
+    /**
+     * ⏳ Configured access token lifetime: upper bound for the expiry of any token issued before now
+     */
+    public long getJwtExpirationMs() {
+        return jwtExpirationMs;
+    }
+
     /**
      * ⏱️ Get remaining token validity time in milliseconds
      */
@@ -142,16 +319,14 @@ public class JwtUtils {
      * 🔑 Get signing key for JWT
      */
     private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signingKey;
     }
 
     /**
      * 📊 Extract all claims from token
      */
     public Claims getAllClaimsFromToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,91 @@
+package com.tcc.taskmanager.security;
+
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * 🎫 Resultado de verificar un JWT: un código de estado y, si es válido, los claims ya tipados.
+ * Es inmutable, así que la misma instancia se comparte desde la caché de tokens verificados.
+ */
+public final class JwtVerification {
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        MALFORMED,
+        INVALID_SIGNATURE,
+        UNSUPPORTED,
+        EMPTY
+    }
+
+    private static final JwtVerification EMPTY = new JwtVerification(Status.EMPTY);
+    private static final JwtVerification MALFORMED = new JwtVerification(Status.MALFORMED);
+    private static final JwtVerification EXPIRED = new JwtVerification(Status.EXPIRED);
+    private static final JwtVerification INVALID_SIGNATURE = new JwtVerification(Status.INVALID_SIGNATURE);
+    private static final JwtVerification UNSUPPORTED = new JwtVerification(Status.UNSUPPORTED);
+
+    private final Status status;
+    private final String username;
+    private final Long userId;
+    private final String role;
+    private final String email;
+    private final Long tokenVersion;
+    private final UUID tokenId;
+    private final Date expiration;
+
+    private JwtVerification(Status status) {
+        this(status, null, null, null, null, null, null, null);
+    }
+
+    private JwtVerification(Status status, String username, Long userId, String role, String email,
+                            Long tokenVersion, UUID tokenId, Date expiration) {
+        this.status = status;
+        this.username = username;
+        this.userId = userId;
+        this.role = role;
+        this.email = email;
+        this.tokenVersion = tokenVersion;
+        this.tokenId = tokenId;
+        this.expiration = expiration;
+    }
+
+    public static JwtVerification valid(String username, Long userId, String role, String email,
+                                        Long tokenVersion, UUID tokenId, Date expiration) {
+        return new JwtVerification(Status.VALID, username, userId, role, email, tokenVersion, tokenId, expiration);
+    }
+
+    public static JwtVerification of(Status status) {
+        switch (status) {
+            case EMPTY: return EMPTY;
+            case MALFORMED: return MALFORMED;
+            case EXPIRED: return EXPIRED;
+            case INVALID_SIGNATURE: return INVALID_SIGNATURE;
+            case UNSUPPORTED: return UNSUPPORTED;
+            default: throw new IllegalArgumentException("Un resultado válido requiere claims");
+        }
+    }
+
+    public boolean isValid() { return status == Status.VALID; }
+
+    /** Válido y todavía no vencido: lo que cuenta para un resultado leído de la caché */
+    public boolean isValidAt(long nowMillis) {
+        return isValid() && (expiration == null || expiration.getTime() > nowMillis);
+    }
+
+    public Status getStatus() { return status; }
+
+    public String getUsername() { return username; }
+
+    public Long getUserId() { return userId; }
+
+    public String getRole() { return role; }
+
+    public String getEmail() { return email; }
+
+    public Long getTokenVersion() { return tokenVersion; }
+
+    /** Claim jti; null en tokens emitidos antes de que existiera */
+    public UUID getTokenId() { return tokenId; }
+
+    public Date getExpiration() { return expiration; }
+}
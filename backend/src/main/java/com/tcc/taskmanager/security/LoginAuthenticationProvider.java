@@ -0,0 +1,108 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.service.PasswordHashingService;
+import com.tcc.taskmanager.service.UserChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 🔐 Autenticación de login con una sola lectura de users: busca por email o username en el mismo SELECT,
+ * verifica la contraseña y devuelve un UserPrincipal con todo lo necesario para emitir el token.
+ * Si el hash guardado usa un coste de BCrypt menor que el configurado, lo regenera con la contraseña recibida.
+ * AuthService usa findUser y complete por separado para que solo matches corra en el pool de hashing.
+ */
+@Component
+public class LoginAuthenticationProvider implements AuthenticationProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginAuthenticationProvider.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String password = authentication.getCredentials() != null ? authentication.getCredentials().toString() : "";
+        User user = findUser(authentication.getName());
+        UserPrincipal principal = complete(user, password, passwordEncoder.matches(password, user.getPassword()));
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+
+    public User findUser(String emailOrUsername) {
+        User user = resolve(emailOrUsername, userRepository.findByEmailOrUsername(emailOrUsername));
+        if (user == null) {
+            throw new UsernameNotFoundException("User not found with email/username: " + emailOrUsername);
+        }
+        return user;
+    }
+
+    /**
+     * Resultado de la verificación: el principal si la contraseña coincide. El re-hash al coste vigente
+     * se encola en el pool de hashing y no retrasa la respuesta.
+     */
+    public UserPrincipal complete(User user, String password, boolean matches) {
+        if (!matches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (passwordHashingService.upgradeEncoding(user.getPassword())) {
+            passwordHashingService.encode(password)
+                .thenAcceptAsync(encoded -> upgradePassword(user, encoded), passwordHashingService.callbackExecutor())
+                .exceptionally(error -> {
+                    logger.warn("No se pudo actualizar el hash de contraseña del usuario {}: {}", user.getId(),
+                        error.getMessage());
+                    return null;
+                });
+        }
+        return UserPrincipal.create(user);
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+
+    // email y username son únicos por separado: a lo sumo dos filas. Con forma de email manda esa coincidencia.
+    private User resolve(String emailOrUsername, List<User> candidates) {
+        boolean looksLikeEmail = emailOrUsername.contains("@") && emailOrUsername.contains(".");
+        for (User candidate : candidates) {
+            String preferred = looksLikeEmail ? candidate.getEmail() : candidate.getUsername();
+            if (emailOrUsername.equalsIgnoreCase(preferred)) {
+                return candidate;
+            }
+        }
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    // UPDATE condicionado al hash leído en el login: la entidad es de entonces y guardarla entera podría
+    // deshacer un cambio de contraseña (y su token_version) hecho mientras el re-hash esperaba en el pool
+    private void upgradePassword(User user, String encodedPassword) {
+        if (userRepository.upgradePassword(user.getId(), user.getPassword(), encodedPassword) != 1) {
+            logger.debug("Re-hash descartado para usuario {}: la contraseña cambió desde el login", user.getId());
+            return;
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
+        logger.debug("Hash de contraseña actualizado al coste vigente para usuario {}", user.getId());
+    }
+}
@@ -0,0 +1,275 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.RevokedToken;
+import com.tcc.taskmanager.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 🚫 Conjunto en memoria de jti revocados, consultado por el filtro en cada petición sin ir a la base de datos.
+ * Un filtro de Bloom descarta casi todos los tokens leyendo unos pocos bits; solo sus positivos (revocados
+ * o ~1% de falsos positivos) consultan la tabla exacta. Los lectores recorren arrays de long sin bloqueos
+ * ni asignaciones; las escrituras se serializan y los expirados se descartan reconstruyendo la instantánea.
+ * revoked_tokens es la fuente de verdad: se carga al arrancar y se recarga para ver las revocaciones
+ * hechas en otras instancias.
+ */
+@Component
+public class TokenRevocationRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    // 10 bits por entrada y 7 funciones hash: ~1% de falsos positivos con expected-entries revocados
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASHES = 7;
+
+    // Margen de la recarga incremental: revocaciones confirmadas tarde o con el reloj de otra instancia atrasado
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${security.jwt.revocation.expected-entries:10000}")
+    private int expectedEntries;
+
+    private volatile Snapshot snapshot;
+
+    // Solo se accede con el monitor tomado
+    private LocalDateTime lastSync;
+
+    @PostConstruct
+    public void init() {
+        snapshot = new Snapshot(expectedEntries);
+        load(null);
+        Gauge.builder("auth.tokens.revoked", this, TokenRevocationRegistry::size)
+            .description("jti revocados y todavía en memoria")
+            .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-ms:30000}",
+               initialDelayString = "${security.jwt.revocation.refresh-ms:30000}")
+    public void refresh() {
+        LocalDateTime since;
+        synchronized (this) {
+            since = lastSync.minus(SYNC_OVERLAP);
+        }
+        load(since);
+    }
+
+    /**
+     * ¿Se revocó este token? Sin bloqueos ni asignaciones: es la consulta del camino de cada petición.
+     * Una entrada ya expirada puede seguir respondiendo true hasta el barrido, pero su token ya no es válido.
+     */
+    public boolean isRevoked(UUID tokenId) {
+        Snapshot current = snapshot;
+        long high = tokenId.getMostSignificantBits();
+        long low = tokenId.getLeastSignificantBits();
+        return current.mightContain(high, low) && current.contains(high, low);
+    }
+
+    /**
+     * Registra la revocación en memoria; el llamador ya la persistió en revoked_tokens
+     */
+    public synchronized void revoke(UUID tokenId, long expiresAtMillis) {
+        Snapshot current = snapshot;
+        if (!current.hasRoom()) {
+            current = rebuild(System.currentTimeMillis());
+        }
+        current.put(tokenId.getMostSignificantBits(), tokenId.getLeastSignificantBits(), expiresAtMillis);
+    }
+
+    /**
+     * 🧹 Un filtro de Bloom no admite borrados: los expirados se quitan copiando los vigentes a una instantánea nueva
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.sweep-ms:60000}")
+    public synchronized void evictExpired() {
+        long now = System.currentTimeMillis();
+        if (snapshot.countLive(now) < snapshot.size) {
+            rebuild(now);
+        }
+    }
+
+    public int size() {
+        return snapshot.size;
+    }
+
+    private void load(LocalDateTime since) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            List<RevokedToken> rows = since == null
+                ? revokedTokenRepository.findByExpiresAtAfter(startedAt)
+                : revokedTokenRepository.findActiveRevokedSince(since, startedAt);
+            synchronized (this) {
+                for (RevokedToken row : rows) {
+                    revoke(UUID.fromString(row.getJti()), toEpochMillis(row.getExpiresAt()));
+                }
+                lastSync = startedAt;
+            }
+        } catch (Exception e) {
+            // Se conserva lo ya cargado; la próxima recarga vuelve a pedir desde la última sincronización
+            logger.error("No se pudo recargar los tokens revocados: {}", e.getMessage());
+            synchronized (this) {
+                if (lastSync == null) {
+                    lastSync = startedAt.minus(Duration.ofDays(1));
+                }
+            }
+        }
+    }
+
+    // Copia los vigentes a una instantánea dimensionada para ellos y la publica; los lectores en curso terminan con la anterior
+    private Snapshot rebuild(long now) {
+        Snapshot current = snapshot;
+        int live = current.countLive(now);
+        Snapshot next = new Snapshot(Math.max(expectedEntries, live * 2));
+        current.copyLiveTo(next, now);
+        snapshot = next;
+        return next;
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Filtro de Bloom más tabla hash de direccionamiento abierto, ambos en AtomicLongArray.
+     * Cada entrada ocupa tres long [high, low, expiresAt]; expiresAt se escribe último y un 0 marca hueco libre,
+     * así un lector nunca ve una entrada a medio escribir. Un solo escritor a la vez (el monitor del registro).
+     */
+    private static final class Snapshot {
+
+        private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+        private final AtomicLongArray bloom;
+        private final int bloomMask;
+        private final AtomicLongArray slots;
+        private final int slotMask;
+        private final int capacity;
+
+        // Escrito solo por el escritor; la lectura del gauge puede ir un paso atrasada
+        private volatile int size;
+
+        Snapshot(int expectedEntries) {
+            int bits = powerOfTwoAtLeast(Math.max(64, expectedEntries * BLOOM_BITS_PER_ENTRY));
+            bloom = new AtomicLongArray(bits >>> 6);
+            bloomMask = bits - 1;
+            capacity = powerOfTwoAtLeast(Math.max(16, expectedEntries * 2));
+            slots = new AtomicLongArray(capacity * 3);
+            slotMask = capacity - 1;
+        }
+
+        // Doble hashing (Kirsch-Mitzenmacher): las BLOOM_HASHES posiciones salen de dos hashes de la clave
+        boolean mightContain(long high, long low) {
+            long h1 = mix(high ^ low);
+            long h2 = mix(low + GOLDEN_GAMMA * high) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & bloomMask);
+                if ((bloom.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean contains(long high, long low) {
+            return find(high, low) >= 0;
+        }
+
+        boolean hasRoom() {
+            return (size + 1) * 2 <= capacity;
+        }
+
+        void put(long high, long low, long expiresAtMillis) {
+            int found = find(high, low);
+            if (found >= 0) {
+                int base = found * 3;
+                if (slots.get(base + 2) < expiresAtMillis) {
+                    slots.set(base + 2, expiresAtMillis);
+                }
+                return;
+            }
+            int slot = (int) (mix(high ^ low) >>> 32) & slotMask;
+            while (slots.get(slot * 3 + 2) != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            int base = slot * 3;
+            slots.set(base, high);
+            slots.set(base + 1, low);
+            slots.set(base + 2, Math.max(1, expiresAtMillis));
+            size++;
+
+            // Los bits del filtro se encienden después de publicar la entrada exacta
+            long h1 = mix(high ^ low);
+            long h2 = mix(low + GOLDEN_GAMMA * high) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (int) ((h1 + i * h2) & bloomMask);
+                int word = bit >>> 6;
+                bloom.set(word, bloom.get(word) | (1L << bit));
+            }
+        }
+
+        int countLive(long now) {
+            int live = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                if (slots.get(slot * 3 + 2) > now) {
+                    live++;
+                }
+            }
+            return live;
+        }
+
+        void copyLiveTo(Snapshot target, long now) {
+            for (int slot = 0; slot < capacity; slot++) {
+                int base = slot * 3;
+                long expiresAt = slots.get(base + 2);
+                if (expiresAt > now) {
+                    target.put(slots.get(base), slots.get(base + 1), expiresAt);
+                }
+            }
+        }
+
+        // Índice del hueco que contiene la clave, o -1
+        private int find(long high, long low) {
+            int slot = (int) (mix(high ^ low) >>> 32) & slotMask;
+            while (true) {
+                int base = slot * 3;
+                if (slots.get(base + 2) == 0) {
+                    return -1;
+                }
+                if (slots.get(base) == high && slots.get(base + 1) == low) {
+                    return slot;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+        }
+
+        // Finalizador de MurmurHash3: dispersa bien incluso claves con pocos bits distintos
+        private static long mix(long value) {
+            value ^= value >>> 33;
+            value *= 0xFF51AFD7ED558CCDL;
+            value ^= value >>> 33;
+            value *= 0xC4CEB9FE1A85EC53L;
+            value ^= value >>> 33;
+            return value;
+        }
+
+        private static int powerOfTwoAtLeast(int value) {
+            return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.dto.UserTokenVersionDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔐 Tabla en memoria userId -> versión vigente de sus JWT, para revocar sin consultar users por petición.
+ * Solo guarda usuarios con versión > 0 y las versiones solo crecen, así que recarga y cambios locales
+ * se combinan con max sin perderse. Los cambios de esta instancia se aplican al confirmar la
+ * transacción; los de otras instancias llegan con la recarga periódica.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenVersionRegistry.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.token-version-refresh-ms:30000}",
+               initialDelayString = "${security.jwt.token-version-refresh-ms:30000}")
+    public void refresh() {
+        try {
+            for (UserTokenVersionDto row : userRepository.findRevokedTokenVersions()) {
+                versions.merge(row.getUserId(), row.getTokenVersion(), Math::max);
+            }
+        } catch (Exception e) {
+            // Se conserva la tabla conocida hasta la próxima recarga
+            logger.error("No se pudo recargar las versiones de token: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Un token es vigente si se emitió con la versión actual del usuario (o una posterior)
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        return tokenVersion >= versions.getOrDefault(userId, 0L);
+    }
+
+    public void onTokenVersionChanged(Long userId, long tokenVersion) {
+        Runnable apply = () -> versions.merge(userId, tokenVersion, Math::max);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
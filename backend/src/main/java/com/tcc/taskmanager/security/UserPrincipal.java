@@ -1,5 +1,6 @@
 package com.tcc.taskmanager.security;
 
+import com.tcc.taskmanager.model.Role;
 import com.tcc.taskmanager.model.User;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -14,6 +15,8 @@ public class UserPrincipal implements UserDetails {
     private String username;
     private String email;
     private String password;
+    private Role role;
+    private long tokenVersion;
     private Collection<? extends GrantedAuthority> authorities;
 
     public UserPrincipal(Long id, String username, String email, String password,
@@ -25,20 +28,34 @@ public class UserPrincipal implements UserDetails {
         this.authorities = authorities;
     }
 
-    public static UserPrincipal create(User user) {
-        List<GrantedAuthority> authorities = List.of(
-            new SimpleGrantedAuthority("ROLE_" + user.getRole().name())
-        );
+    private UserPrincipal(Long id, String username, String email, String password, Role role, long tokenVersion) {
+        this(id, username, email, password, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
 
+    /**
+     * Principal completo desde la entidad: lleva todo lo necesario para emitir el access token
+     */
+    public static UserPrincipal create(User user) {
+        Role role = user.getRole() != null ? user.getRole() : Role.USER;
         return new UserPrincipal(
             user.getId(),
             user.getUsername(),
             user.getEmail(),
             user.getPassword(),
-            authorities
+            role,
+            user.getTokenVersion()
         );
     }
 
+    /**
+     * Principal reconstruido desde los claims de un JWT verificado, sin contraseña ni consulta a users
+     */
+    public static UserPrincipal fromClaims(Long id, String username, String email, Role role, long tokenVersion) {
+        return new UserPrincipal(id, username, email, null, role, tokenVersion);
+    }
+
     public Long getId() {
         return id;
     }
@@ -47,6 +64,14 @@ public class UserPrincipal implements UserDetails {
         return email;
     }
 
+    public Role getRole() {
+        return role;
+    }
+
+    public long getTokenVersion() {
+        return tokenVersion;
+    }
+
     @Override
     public String getUsername() {
         return username;
@@ -3,106 +3,115 @@ package com.tcc.taskmanager.service;
 import com.tcc.taskmanager.model.User;
 import com.tcc.taskmanager.model.dto.JwtResponseDto;
 import com.tcc.taskmanager.model.dto.LoginRequestDto;
+import com.tcc.taskmanager.model.dto.RefreshTokenRequestDto;
 import com.tcc.taskmanager.model.dto.RegisterRequestDto;
 import com.tcc.taskmanager.repository.UserRepository;
 import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.JwtVerification;
+import com.tcc.taskmanager.security.LoginAuthenticationProvider;
+import com.tcc.taskmanager.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
-import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class AuthService {
 
     @Autowired
-    private AuthenticationManager authenticationManager;
+    private LoginAuthenticationProvider loginAuthenticationProvider;
 
     @Autowired
     private UserRepository userRepository;
 
+    // BCrypt fuera de los hilos de Tomcat, con concurrencia acotada
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
 
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
     /**
      * 🔐 AUTHENTICATE USER - Supports both email and username
+     * LoginAuthenticationProvider resuelve el usuario con una sola consulta y devuelve el principal con el que
+     * se emite el token. En el pool de hashing solo corre matches; el token y el refresh token se emiten
+     * en el pool de continuaciones.
      */
-    public JwtResponseDto authenticateUser(LoginRequestDto loginRequest) {
-        // 1. Find user by email or username
-        User user = findUserByEmailOrUsername(loginRequest.getEmailOrUsername());
-        
-        if (user == null) {
-            throw new RuntimeException("User not found with email/username: " + loginRequest.getEmailOrUsername());
-        }
-
-        // 2. Authenticate using the user's username (Spring Security needs consistent principal)
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(user.getUsername(), loginRequest.getPassword())
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = jwtUtils.generateJwtToken(authentication);
-
-        return new JwtResponseDto(jwt, user.getId(), user.getUsername(), user.getEmail());
+    public CompletableFuture<JwtResponseDto> authenticateUser(LoginRequestDto loginRequest) {
+        User user = loginAuthenticationProvider.findUser(loginRequest.getEmailOrUsername());
+        return passwordHashingService.matches(loginRequest.getPassword(), user.getPassword())
+            .thenApplyAsync(matches -> {
+                UserPrincipal principal = loginAuthenticationProvider.complete(user, loginRequest.getPassword(), matches);
+                String jwt = jwtUtils.generateUserToken(principal);
+                JwtResponseDto response = new JwtResponseDto(jwt, principal.getId(), principal.getUsername(), principal.getEmail());
+                response.setRefreshToken(refreshTokenService.issue(principal.getId(), principal.getTokenVersion()));
+                return response;
+            }, passwordHashingService.callbackExecutor());
     }
 
     /**
-     * 🔍 FIND USER BY EMAIL OR USERNAME
-     * Busca usuario por email o username de forma flexible
+     * 📝 REGISTER USER - DEVUELVE JWT PARA AUTO-LOGIN
+     * Un único INSERT: las restricciones únicas de users deciden si el username o el email ya existen,
+     * también entre registros concurrentes
      */
-    private User findUserByEmailOrUsername(String emailOrUsername) {
-        // Determinar si es email o username
-        if (isEmailFormat(emailOrUsername)) {
-            // Buscar por email
-            Optional<User> userByEmail = userRepository.findByEmail(emailOrUsername);
-            return userByEmail.orElse(null);
-        } else {
-            // Buscar por username
-            Optional<User> userByUsername = userRepository.findByUsername(emailOrUsername);
-            return userByUsername.orElse(null);
-        }
+    public CompletableFuture<JwtResponseDto> registerUser(RegisterRequestDto signUpRequest) {
+        return passwordHashingService.encode(signUpRequest.getPassword()).thenApplyAsync(encodedPassword -> {
+            // Create new user's account
+            User user = new User(
+                signUpRequest.getUsername(),
+                signUpRequest.getEmail(),
+                encodedPassword,
+                signUpRequest.getFirstName(),
+                signUpRequest.getLastName()
+            );
+
+            User savedUser;
+            try {
+                savedUser = userRepository.saveAndFlush(user);
+            } catch (DataIntegrityViolationException e) {
+                String message = UserConstraintViolations.messageFor(e);
+                throw message != null ? new RuntimeException(message) : e;
+            }
+
+            // GENERAR TOKEN INMEDIATAMENTE PARA AUTO-LOGIN
+            String jwt = jwtUtils.generateUserToken(savedUser);
+
+            JwtResponseDto response = new JwtResponseDto(jwt, savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
+            response.setRefreshToken(refreshTokenService.issue(savedUser.getId(), savedUser.getTokenVersion()));
+            return response;
+        }, passwordHashingService.callbackExecutor());
     }
 
     /**
-     * 🔍 CHECK IF INPUT IS EMAIL FORMAT
+     * 🔄 REFRESH - rota el refresh token y emite un access token nuevo, sin BCrypt
      */
-    private boolean isEmailFormat(String input) {
-        return input != null && input.contains("@") && input.contains(".");
+    public JwtResponseDto refreshToken(RefreshTokenRequestDto request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.getUser();
+        String jwt = jwtUtils.generateUserToken(user);
+
+        JwtResponseDto response = new JwtResponseDto(jwt, user.getId(), user.getUsername(), user.getEmail());
+        response.setRefreshToken(rotation.getRefreshToken());
+        return response;
     }
 
     /**
-     * 📝 REGISTER USER - DEVUELVE JWT PARA AUTO-LOGIN
+     * 🚪 LOGOUT - revoca el access token (por su jti, hasta su expiración) y la familia del refresh token.
+     * Idempotente: un token inválido o ya revocado no es un error.
      */
-    public JwtResponseDto registerUser(RegisterRequestDto signUpRequest) {
-        if (userRepository.existsByUsername(signUpRequest.getUsername())) {
-            throw new RuntimeException("El nombre de usuario ya está en uso");
-        }
-
-        if (userRepository.existsByEmail(signUpRequest.getEmail())) {
-            throw new RuntimeException("El email ya está en uso");
+    public void logout(String accessToken, String refreshToken) {
+        JwtVerification token = jwtUtils.verifyAndExtract(accessToken);
+        tokenRevocationService.revoke(token);
+        if (StringUtils.hasText(refreshToken)) {
+            refreshTokenService.revoke(refreshToken);
         }
-
-        // Create new user's account
-        User user = new User(
-            signUpRequest.getUsername(),
-            signUpRequest.getEmail(),
-            passwordEncoder.encode(signUpRequest.getPassword()),
-            signUpRequest.getFirstName(),
-            signUpRequest.getLastName()
-        );
-
-        User savedUser = userRepository.save(user);
-
-        // GENERAR TOKEN INMEDIATAMENTE PARA AUTO-LOGIN
-        String jwt = jwtUtils.generateTokenFromUsername(savedUser.getUsername());
-
-        return new JwtResponseDto(jwt, savedUser.getId(), savedUser.getUsername(), savedUser.getEmail());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 🔑 Ejecuta el trabajo de BCrypt (hash y verificación de contraseñas) en un pool propio del tamaño
+ * de los núcleos con cola acotada, fuera de los hilos de Tomcat. Con la cola llena rechaza de
+ * inmediato con ServiceUnavailableException (503) en vez de acumular esperas.
+ * En ese pool solo corren encode y matches: lo que sigue al hash (consultas, JWT, refresh token) se encadena
+ * con thenApplyAsync en callbackExecutor(), otro pool acotado, para no ocupar un núcleo de BCrypt esperando JDBC.
+ * Métricas: executor.* (name=passwordHashing y passwordHashingCallbacks), auth.password.hashing{operation}
+ * y auth.password.hashing.rejected{pool}.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private static final String EXECUTOR_NAME = "passwordHashing";
+    private static final String CALLBACK_EXECUTOR_NAME = "passwordHashingCallbacks";
+    private static final String BUSY_MESSAGE = "Servidor ocupado, intente de nuevo en unos segundos";
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // 0 = un hilo por núcleo disponible
+    @Value("${security.password.hashing-threads:0}")
+    private int hashingThreads;
+
+    @Value("${security.password.hashing-queue-capacity:100}")
+    private int queueCapacity;
+
+    // Continuaciones con JDBC: cada hilo puede retener una conexión del pool de base de datos
+    @Value("${security.password.callback-threads:4}")
+    private int callbackThreads;
+
+    @Value("${security.password.callback-queue-capacity:100}")
+    private int callbackQueueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private ThreadPoolExecutor callbackExecutor;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        rejected = Counter.builder("auth.password.hashing.rejected")
+            .description("Operaciones de contraseña rechazadas por pool saturado")
+            .tag("pool", EXECUTOR_NAME)
+            .register(meterRegistry);
+        Counter callbacksRejected = Counter.builder("auth.password.hashing.rejected")
+            .description("Operaciones de contraseña rechazadas por pool saturado")
+            .tag("pool", CALLBACK_EXECUTOR_NAME)
+            .register(meterRegistry);
+
+        executor = boundedExecutor(threads, queueCapacity, "password-hashing-", new ThreadPoolExecutor.AbortPolicy());
+        // CompletableFuture completa la etapa con la excepción del rechazo: llega al controlador como 503
+        callbackExecutor = boundedExecutor(callbackThreads, callbackQueueCapacity, "password-hashing-callback-",
+            (task, pool) -> {
+                callbacksRejected.increment();
+                logger.warn("Pool de continuaciones de hashing saturado ({} en cola)", pool.getQueue().size());
+                throw new ServiceUnavailableException(BUSY_MESSAGE);
+            });
+
+        new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        new ExecutorServiceMetrics(callbackExecutor, CALLBACK_EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+        logger.info("Pool de hashing de contraseñas: {} hilos, cola de {}; continuaciones: {} hilos, cola de {}",
+            threads, queueCapacity, callbackThreads, callbackQueueCapacity);
+    }
+
+    private static ThreadPoolExecutor boundedExecutor(int threads, int capacity, String threadPrefix,
+                                                      RejectedExecutionHandler rejectionHandler) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(capacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, threadPrefix + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            rejectionHandler);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        callbackExecutor.shutdown();
+    }
+
+    /**
+     * Pool para encadenar (thenApplyAsync) el trabajo que sigue a encode o matches
+     */
+    public Executor callbackExecutor() {
+        return callbackExecutor;
+    }
+
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit("encode", () -> passwordEncoder.encode(rawPassword));
+    }
+
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit("matches", () -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Sin BCrypt: compara el coste del hash guardado con el configurado
+     */
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Hashea una lista completa (alta masiva) con a lo sumo un hilo por núcleo ocupado a la vez por esta llamada,
+     * para no llenar la cola que comparten los logins. Bloquea al llamador hasta terminar.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<String> encoded = new ArrayList<>(rawPasswords.size());
+        int window = executor.getMaximumPoolSize();
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<CompletableFuture<String>> batch = rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))
+                .stream()
+                .map(this::encode)
+                .toList();
+            for (CompletableFuture<String> hash : batch) {
+                try {
+                    encoded.add(hash.join());
+                } catch (CompletionException e) {
+                    throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                }
+            }
+        }
+        return encoded;
+    }
+
+    private <T> CompletableFuture<T> submit(String operation, Supplier<T> task) {
+        Timer timer = Timer.builder("auth.password.hashing")
+            .description("Duración de las operaciones de contraseña en el pool de hashing")
+            .tag("operation", operation)
+            .register(meterRegistry);
+        try {
+            return CompletableFuture.supplyAsync(() -> timer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("Pool de hashing saturado ({} en cola), operación {} rechazada",
+                executor.getQueue().size(), operation);
+            return CompletableFuture.failedFuture(new ServiceUnavailableException(BUSY_MESSAGE));
+        }
+    }
+}
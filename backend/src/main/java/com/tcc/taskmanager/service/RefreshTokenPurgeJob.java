@@ -0,0 +1,31 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🧹 Elimina los refresh tokens expirados. Los revocados se conservan hasta su expiración
+ * para seguir detectando reutilizaciones.
+ */
+@Component
+public class RefreshTokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Scheduled(cron = "${security.jwt.refresh-purge-cron:0 15 4 * * *}")
+    @Transactional
+    public void purge() {
+        int purged = refreshTokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        logger.info("Refresh tokens expirados eliminados: {}", purged);
+    }
+}
@@ -0,0 +1,142 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.exception.InvalidTokenException;
+import com.tcc.taskmanager.model.RefreshToken;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.RefreshTokenRepository;
+import com.tcc.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * 🔄 Emisión y rotación de refresh tokens. Renovar cuesta una búsqueda por índice y una firma HMAC,
+ * sin BCrypt: el token es aleatorio (256 bits), así que basta con guardar su SHA-256.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${security.jwt.refresh-expiration}")
+    private long refreshExpirationMs;
+
+    /**
+     * Abre una familia nueva (login o registro) y devuelve el token para el cliente
+     */
+    @Transactional
+    public String issue(Long userId, long tokenVersion) {
+        return create(userRepository.getReferenceById(userId), UUID.randomUUID().toString(), tokenVersion,
+            LocalDateTime.now());
+    }
+
+    /**
+     * Consume el refresh token y emite el siguiente de la misma familia. La revocación de la familia por
+     * reutilización o por usuario deshabilitado se confirma aunque la petición falle.
+     */
+    @Transactional(noRollbackFor = InvalidTokenException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .orElseThrow(() -> new InvalidTokenException("Refresh token inválido"));
+        LocalDateTime now = LocalDateTime.now();
+        User user = current.getUser();
+
+        if (current.getRevokedAt() != null) {
+            revokeFamily(current, now);
+            throw new InvalidTokenException("Refresh token ya utilizado");
+        }
+        if (!user.isEnabled()) {
+            // Cuenta desactivada: la familia no vuelve a servir aunque se reactive la cuenta
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId(), now);
+            logger.info("Refresh de usuario deshabilitado {}: familia {} revocada ({} tokens)",
+                user.getId(), current.getFamilyId(), revoked);
+            throw new InvalidTokenException("Usuario deshabilitado");
+        }
+        if (current.getExpiresAt().isBefore(now)) {
+            throw new InvalidTokenException("Refresh token expirado");
+        }
+        if (current.getTokenVersion() < user.getTokenVersion()) {
+            throw new InvalidTokenException("Refresh token revocado");
+        }
+        if (refreshTokenRepository.revoke(current.getId(), now) == 0) {
+            // Otra petición lo consumió entre la lectura y el UPDATE
+            revokeFamily(current, now);
+            throw new InvalidTokenException("Refresh token ya utilizado");
+        }
+
+        String next = create(user, current.getFamilyId(), user.getTokenVersion(), now);
+        return new Rotation(user, next);
+    }
+
+    /**
+     * Logout: revoca la familia del refresh token presentado; un token desconocido se ignora
+     */
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+            .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    private void revokeFamily(RefreshToken token, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+        logger.warn("Reutilización de refresh token del usuario {}: familia {} revocada ({} tokens)",
+            token.getUser().getId(), token.getFamilyId(), revoked);
+    }
+
+    private String create(User user, String familyId, long tokenVersion, LocalDateTime now) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(new RefreshToken(user, hash(rawToken), familyId, tokenVersion, now,
+            now.plusNanos(refreshExpirationMs * 1_000_000)));
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Usuario dueño del token consumido y el refresh token que lo reemplaza
+     */
+    public static final class Rotation {
+
+        private final User user;
+        private final String refreshToken;
+
+        Rotation(User user, String refreshToken) {
+            this.user = user;
+            this.refreshToken = refreshToken;
+        }
+
+        public User getUser() { return user; }
+
+        public String getRefreshToken() { return refreshToken; }
+    }
+}
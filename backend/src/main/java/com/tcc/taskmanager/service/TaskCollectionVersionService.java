@@ -0,0 +1,85 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.TaskCollectionVersion;
+import com.tcc.taskmanager.repository.TaskCollectionVersionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * 🏷️ Versión por usuario de su colección de tareas, para GET condicionales (ETag / If-None-Match).
+ * Cada escritura la incrementa dentro de su propia transacción, de modo que un ETag nunca
+ * puede quedar asociado a un cambio que no se confirmó.
+ */
+@Service
+public class TaskCollectionVersionService {
+
+    @Autowired
+    private TaskCollectionVersionRepository taskCollectionVersionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Versión actual de la colección; una sola lectura por clave primaria, sin tocar tasks
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(Long userId) {
+        Optional<TaskCollectionVersion> version = taskCollectionVersionRepository.findById(userId);
+        if (version.isPresent()) {
+            return version.get().getVersion();
+        }
+        create(userId);
+        return taskCollectionVersionRepository.findById(userId).map(TaskCollectionVersion::getVersion).orElse(0L);
+    }
+
+    /**
+     * Se une a la transacción de la escritura: la versión avanza solo si la escritura se confirma.
+     * Las escrituras lo llaman antes de tocar tasks: el UPDATE deja la fila bloqueada hasta el commit
+     * y hace de cerrojo por usuario. Por eso la versión devuelta sigue el orden de commit de las escrituras
+     * del usuario, y es la que se graba como sync_version en tareas y tombstones.
+     */
+    @Transactional
+    public long bump(Long userId) {
+        if (taskCollectionVersionRepository.increment(userId) == 0) {
+            create(userId);
+            taskCollectionVersionRepository.increment(userId);
+        }
+        return taskCollectionVersionRepository.findVersionByUserId(userId)
+            .orElseThrow(() -> new RuntimeException("Versión de colección ausente para el usuario " + userId));
+    }
+
+    /**
+     * Toma el mismo cerrojo que bump sin cambiar la versión (y por tanto sin invalidar los ETag)
+     */
+    @Transactional
+    public void lock(Long userId) {
+        if (taskCollectionVersionRepository.findByUserIdForUpdate(userId).isEmpty()) {
+            create(userId);
+            taskCollectionVersionRepository.findByUserIdForUpdate(userId);
+        }
+    }
+
+    private void create(Long userId) {
+        try {
+            requiresNew.executeWithoutResult(status -> taskCollectionVersionRepository.insert(userId));
+        } catch (DataIntegrityViolationException e) {
+            // Otra petición creó la fila en paralelo
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 🔁 Reconstruye periódicamente task_counters desde tasks y reporta el desvío encontrado.
+ * Cada usuario se reconcilia en su propia transacción para no bloquear a todos a la vez.
+ */
+@Component
+public class TaskCounterReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterReconciliationJob.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Scheduled(cron = "${tasks.counters.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        List<Long> userIds = userRepository.findAllIds();
+        int usersWithDrift = 0;
+        int driftedCells = 0;
+        int failures = 0;
+
+        for (Long userId : userIds) {
+            try {
+                int drift = taskCounterService.reconcile(userId);
+                if (drift > 0) {
+                    usersWithDrift++;
+                    driftedCells += drift;
+                }
+            } catch (Exception e) {
+                failures++;
+                logger.error("No se pudo reconciliar contadores del usuario {}: {}", userId, e.getMessage());
+            }
+        }
+
+        if (usersWithDrift > 0 || failures > 0) {
+            logger.warn("Reconciliación de contadores: {} usuarios, {} con desvío ({} celdas corregidas), {} fallos",
+                userIds.size(), usersWithDrift, driftedCells, failures);
+        } else {
+            logger.info("Reconciliación de contadores: {} usuarios sin desvío", userIds.size());
+        }
+    }
+}
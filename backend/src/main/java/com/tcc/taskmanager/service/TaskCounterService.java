@@ -0,0 +1,210 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskCounter;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import com.tcc.taskmanager.repository.TaskCounterRepository;
+import com.tcc.taskmanager.repository.TaskRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 🔢 Contadores de tareas por (usuario, estado, prioridad) mantenidos incrementalmente.
+ * Un usuario sin filas todavía no está inicializado: el primer ajuste o la primera lectura los siembra
+ * desde tasks. Sembrar y reconciliar toman los bloqueos en el orden de las escrituras (fila de versión
+ * del usuario, tasks, task_counters), así ningún ajuste concurrente se pierde ni se produce un interbloqueo.
+ */
+@Service
+public class TaskCounterService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskCounterService.class);
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskCollectionVersionService taskCollectionVersionService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate requiresNew;
+
+    @PostConstruct
+    public void init() {
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Se une a la transacción de la escritura sobre tasks: el contador y la tarea se confirman juntos
+     */
+    @Transactional
+    public void increment(Long userId, TaskStatus status, Priority priority) {
+        Deltas deltas = new Deltas();
+        deltas.add(status, priority, 1);
+        apply(userId, deltas);
+    }
+
+    @Transactional
+    public void decrement(Long userId, TaskStatus status, Priority priority) {
+        Deltas deltas = new Deltas();
+        deltas.add(status, priority, -1);
+        apply(userId, deltas);
+    }
+
+    @Transactional
+    public void move(Long userId, TaskStatus oldStatus, Priority oldPriority,
+                     TaskStatus newStatus, Priority newPriority) {
+        Deltas deltas = new Deltas();
+        deltas.move(oldStatus, oldPriority, newStatus, newPriority);
+        apply(userId, deltas);
+    }
+
+    /**
+     * Aplica los ajustes acumulados: una sentencia por celda. El llamador ya escribió tasks y tiene la fila
+     * de versión del usuario; si los contadores no existen se siembran aquí, desde tasks, que ya incluye
+     * las escrituras de esta transacción (por eso el resto de ajustes no se aplica).
+     */
+    @Transactional
+    public void apply(Long userId, Deltas deltas) {
+        for (Map.Entry<TaskStatus, Map<Priority, Long>> byStatus : deltas.cells.entrySet()) {
+            for (Map.Entry<Priority, Long> cell : byStatus.getValue().entrySet()) {
+                long delta = cell.getValue();
+                if (delta != 0 && taskCounterRepository.adjust(userId, byStatus.getKey(), cell.getKey(), delta) == 0) {
+                    logger.debug("Contadores no inicializados para usuario {}, se siembran desde tasks", userId);
+                    rebuildLocked(userId);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Recalcula los contadores desde tasks dentro de la transacción de una escritura que no puede
+     * ajustarlos con exactitud; el llamador ya tiene la fila de versión del usuario
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        rebuildLocked(userId);
+    }
+
+    /**
+     * Lectura O(1) de los contadores del usuario; los siembra desde tasks si aún no existen.
+     * La siembra va en su propia transacción (en el primario) y con el cerrojo del usuario: dos lecturas
+     * concurrentes se serializan y la segunda encuentra las filas de la primera.
+     */
+    public List<TaskStatusPriorityCountDto> getCounts(Long userId) {
+        List<TaskCounter> counters = taskCounterRepository.findByUserId(userId);
+        if (counters.isEmpty()) {
+            counters = requiresNew.execute(status -> {
+                taskCollectionVersionService.lock(userId);
+                rebuildLocked(userId);
+                return taskCounterRepository.findByUserId(userId);
+            });
+        }
+        return counters.stream()
+            .map(c -> new TaskStatusPriorityCountDto(c.getStatus(), c.getPriority(), c.getTaskCount()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Reconstruye los contadores del usuario desde tasks y devuelve cuántas celdas tenían desvío
+     */
+    public int reconcile(Long userId) {
+        Integer drifted = requiresNew.execute(status -> {
+            taskCollectionVersionService.lock(userId);
+            return rebuildLocked(userId);
+        });
+        return drifted != null ? drifted : 0;
+    }
+
+    // Con la fila de versión ya tomada: bloquea tasks y después task_counters, y los deja iguales al GROUP BY.
+    // Devuelve las celdas con desvío; sembrar desde cero no cuenta como desvío.
+    private int rebuildLocked(Long userId) {
+        taskRepository.lockIdsByUserId(userId);
+        List<TaskCounter> counters = taskCounterRepository.findByUserIdForUpdate(userId);
+        Map<TaskStatus, Map<Priority, Long>> actual = countTasks(userId);
+
+        int drift = 0;
+        List<TaskCounter> changed = new ArrayList<>();
+        for (TaskCounter counter : counters) {
+            long expected = actual.get(counter.getStatus()).remove(counter.getPriority());
+            if (counter.getTaskCount() != expected) {
+                logger.warn("Desvío en contador usuario={} status={} priority={}: contador={} real={}",
+                    userId, counter.getStatus(), counter.getPriority(), counter.getTaskCount(), expected);
+                counter.setTaskCount(expected);
+                changed.add(counter);
+                drift++;
+            }
+        }
+        // Celdas sin fila: solo cuentan como desvío si había tareas que no se estaban contando
+        for (Map.Entry<TaskStatus, Map<Priority, Long>> byStatus : actual.entrySet()) {
+            for (Map.Entry<Priority, Long> cell : byStatus.getValue().entrySet()) {
+                if (!counters.isEmpty() && cell.getValue() > 0) {
+                    logger.warn("Contador ausente usuario={} status={} priority={}: real={}",
+                        userId, byStatus.getKey(), cell.getKey(), cell.getValue());
+                    drift++;
+                }
+                changed.add(new TaskCounter(userId, byStatus.getKey(), cell.getKey(), cell.getValue()));
+            }
+        }
+        taskCounterRepository.saveAllAndFlush(changed);
+        return drift;
+    }
+
+    // Matriz completa (con ceros) de tareas reales del usuario según el GROUP BY de tasks
+    private Map<TaskStatus, Map<Priority, Long>> countTasks(Long userId) {
+        Map<TaskStatus, Map<Priority, Long>> matrix = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                byPriority.put(priority, 0L);
+            }
+            matrix.put(status, byPriority);
+        }
+        for (TaskStatusPriorityCountDto row : taskRepository.countByStatusAndPriority(userId)) {
+            if (row.getStatus() != null && row.getPriority() != null) {
+                matrix.get(row.getStatus()).put(row.getPriority(), row.getCount());
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Acumulador de ajustes (status, priority) para aplicarlos con {@link #apply(Long, Deltas)}
+     */
+    public static final class Deltas {
+
+        private final Map<TaskStatus, Map<Priority, Long>> cells = new EnumMap<>(TaskStatus.class);
+
+        public void add(TaskStatus status, Priority priority, long delta) {
+            if (status == null || priority == null) {
+                return;
+            }
+            cells.computeIfAbsent(status, s -> new EnumMap<>(Priority.class)).merge(priority, delta, Long::sum);
+        }
+
+        public void move(TaskStatus oldStatus, Priority oldPriority, TaskStatus newStatus, Priority newPriority) {
+            add(oldStatus, oldPriority, -1);
+            add(newStatus, newPriority, 1);
+        }
+    }
+}
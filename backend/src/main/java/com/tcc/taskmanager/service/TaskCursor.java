@@ -0,0 +1,54 @@
+package com.tcc.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 🔖 Cursor opaco sobre (createdAt, id) para paginar tareas de más nueva a más antigua.
+ * El cliente solo ve un token Base64 URL-safe; el servidor lo decodifica a la última fila entregada.
+ */
+public final class TaskCursor {
+
+    /** Posición anterior a cualquier tarea real: la primera página usa el mismo predicado que las demás */
+    public static final TaskCursor FIRST = new TaskCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final Long id;
+
+    public TaskCursor(LocalDateTime createdAt, Long id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public Long getId() { return id; }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new RuntimeException("Cursor inválido");
+            }
+            return new TaskCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.dto.TaskSearchDocumentDto;
+import com.tcc.taskmanager.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * 🔎 Índice invertido en memoria de título y descripción, uno por usuario.
+ * Se carga desde la base de datos en la primera búsqueda del usuario, se mantiene con cada
+ * escritura confirmada y se reconstruye al expirar o al detectar que quedó desfasado.
+ * La búsqueda es por prefijo de token (AND entre términos) con ranking tipo TF-IDF.
+ */
+@Component
+public class TaskSearchIndex {
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final double PREFIX_MATCH_FACTOR = 0.6;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Value("${tasks.search.max-indexed-users:10000}")
+    private int maxIndexedUsers;
+
+    @Value("${tasks.search.index-ttl-minutes:10}")
+    private long indexTtlMinutes;
+
+    private final ConcurrentHashMap<Long, UserIndex> indexes = new ConcurrentHashMap<>();
+
+    /**
+     * IDs de tareas del usuario que contienen todos los términos, de mayor a menor relevancia
+     */
+    public List<Long> search(Long userId, String query, int limit) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (terms.isEmpty()) {
+            return Collections.emptyList();
+        }
+        UserIndex index = acquire(userId);
+        return index.search(terms, limit);
+    }
+
+    public void onTaskSaved(Long userId, Long taskId, String title, String description) {
+        afterCommit(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                index.put(taskId, title, description);
+            }
+        });
+    }
+
+    public void onTaskDeleted(Long userId, Long taskId) {
+        afterCommit(() -> {
+            UserIndex index = indexes.get(userId);
+            if (index != null) {
+                index.remove(taskId);
+            }
+        });
+    }
+
+    /**
+     * Descarta el índice del usuario; la próxima búsqueda lo reconstruye desde la base de datos
+     */
+    public void invalidate(Long userId) {
+        indexes.remove(userId);
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private UserIndex acquire(Long userId) {
+        long ttlNanos = TimeUnit.MINUTES.toNanos(indexTtlMinutes);
+        UserIndex index = indexes.compute(userId,
+            (id, current) -> current == null || current.isExpired(ttlNanos) ? new UserIndex() : current);
+        index.ensureLoaded(() -> taskRepository.findSearchDocumentsByUserId(userId));
+        evictIfNeeded();
+        return index;
+    }
+
+    private void evictIfNeeded() {
+        if (indexes.size() <= maxIndexedUsers) {
+            return;
+        }
+        Long leastRecent = null;
+        long oldestAccess = Long.MAX_VALUE;
+        for (Map.Entry<Long, UserIndex> entry : indexes.entrySet()) {
+            if (entry.getValue().lastAccess < oldestAccess) {
+                oldestAccess = entry.getValue().lastAccess;
+                leastRecent = entry.getKey();
+            }
+        }
+        if (leastRecent != null) {
+            indexes.remove(leastRecent);
+        }
+    }
+
+    // Solo las escrituras confirmadas llegan al índice; sin transacción activa se aplican de inmediato
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class UserIndex {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        // token -> (taskId -> peso acumulado del token en la tarea)
+        private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+        // taskId -> tokens de la tarea, para poder retirarla del índice
+        private final Map<Long, Set<String>> documents = new HashMap<>();
+
+        private volatile boolean loaded;
+        private volatile long loadedAt;
+        private volatile long lastAccess = System.nanoTime();
+
+        boolean isExpired(long ttlNanos) {
+            return loaded && System.nanoTime() - loadedAt > ttlNanos;
+        }
+
+        void ensureLoaded(Supplier<List<TaskSearchDocumentDto>> loader) {
+            lastAccess = System.nanoTime();
+            if (loaded) {
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    postings.clear();
+                    documents.clear();
+                    for (TaskSearchDocumentDto document : loader.get()) {
+                        index(document.getId(), document.getTitle(), document.getDescription());
+                    }
+                    loadedAt = System.nanoTime();
+                    loaded = true;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void put(Long taskId, String title, String description) {
+            lock.writeLock().lock();
+            try {
+                unindex(taskId);
+                index(taskId, title, description);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long taskId) {
+            lock.writeLock().lock();
+            try {
+                unindex(taskId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<Long> search(List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                Map<Long, Double> scores = null;
+                for (String term : terms) {
+                    Map<Long, Double> termScores = scoreTerm(term);
+                    if (scores == null) {
+                        scores = termScores;
+                    } else {
+                        scores.keySet().retainAll(termScores.keySet());
+                        scores.replaceAll((taskId, score) -> score + termScores.get(taskId));
+                    }
+                    if (scores.isEmpty()) {
+                        return Collections.emptyList();
+                    }
+                }
+                return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Mejor coincidencia del término en cada tarea: exacta puntúa completo, por prefijo con descuento
+        private Map<Long, Double> scoreTerm(String term) {
+            Map<Long, Double> termScores = new HashMap<>();
+            NavigableMap<String, Map<Long, Integer>> matches =
+                postings.subMap(term, true, term + Character.MAX_VALUE, true);
+            for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+                double factor = match.getKey().equals(term) ? 1.0 : PREFIX_MATCH_FACTOR;
+                double idf = Math.log(1.0 + (double) documents.size() / match.getValue().size());
+                for (Map.Entry<Long, Integer> posting : match.getValue().entrySet()) {
+                    termScores.merge(posting.getKey(), posting.getValue() * factor * idf, Math::max);
+                }
+            }
+            return termScores;
+        }
+
+        private void index(Long taskId, String title, String description) {
+            Map<String, Integer> weights = new HashMap<>();
+            for (String token : tokenize(title)) {
+                weights.merge(token, TITLE_WEIGHT, Integer::sum);
+            }
+            for (String token : tokenize(description)) {
+                weights.merge(token, DESCRIPTION_WEIGHT, Integer::sum);
+            }
+            weights.forEach((token, weight) -> postings.computeIfAbsent(token, t -> new HashMap<>()).put(taskId, weight));
+            documents.put(taskId, weights.keySet());
+        }
+
+        private void unindex(Long taskId) {
+            Set<String> tokens = documents.remove(taskId);
+            if (tokens == null) {
+                return;
+            }
+            for (String token : tokens) {
+                Map<Long, Integer> taskWeights = postings.get(token);
+                if (taskWeights != null) {
+                    taskWeights.remove(taskId);
+                    if (taskWeights.isEmpty()) {
+                        postings.remove(token);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,161 +1,602 @@
 package com.tcc.taskmanager.service;
 
+import com.tcc.taskmanager.config.ReplicaRoutingDataSource;
+import com.tcc.taskmanager.exception.ResourceNotFoundException;
 import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.TaskTombstone;
 import com.tcc.taskmanager.model.User;
 import com.tcc.taskmanager.model.TaskStatus;
 import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.dto.BulkItemResultDto;
+import com.tcc.taskmanager.model.dto.TaskChangesDto;
+import com.tcc.taskmanager.model.dto.CursorPageDto;
 import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskQueryDto;
 import com.tcc.taskmanager.model.dto.TaskStatsDto;
+import com.tcc.taskmanager.model.dto.TaskStatusMoveResultDto;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import com.tcc.taskmanager.model.dto.TaskTombstoneDto;
+import com.tcc.taskmanager.repository.TaskQueryRepository;
 import com.tcc.taskmanager.repository.TaskRepository;
+import com.tcc.taskmanager.repository.TaskTombstoneRepository;
 import com.tcc.taskmanager.repository.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TaskService {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskService.class);
+
+    private static final Set<TaskStatus> OPEN_STATUSES =
+        EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.IN_REVIEW);
+
     @Autowired
     private TaskRepository taskRepository;
 
     @Autowired
     private UserRepository userRepository;
 
-    public List<TaskDto> getUserTasks(String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
-        
-        return taskRepository.findByUserId(user.getId()).stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskCollectionVersionService taskCollectionVersionService;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${tasks.pagination.default-limit:50}")
+    private int defaultPageLimit;
+
+    @Value("${tasks.pagination.max-limit:200}")
+    private int maxPageLimit;
+
+    @Value("${tasks.stats.due-soon-hours:48}")
+    private long dueSoonHours;
+
+    @Value("${tasks.search.max-results:100}")
+    private int maxSearchResults;
+
+    @Value("${tasks.bulk.max-items:500}")
+    private int maxBulkItems;
+
+    // SQL Server admite hasta 2100 parámetros por sentencia: acota el IN de candidatos de texto
+    @Value("${tasks.query.max-text-candidates:2000}")
+    private int maxTextCandidates;
+
+    @Value("${tasks.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    @Transactional(readOnly = true)
+    public List<TaskDto> getUserTasks(Long userId) {
+        return taskRepository.findDtosByUserId(userId);
     }
 
-    public TaskDto getTaskById(Long id, String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getUserTasksPage(Long userId, String cursor, Integer limit) {
+        TaskCursor after = TaskCursor.decode(cursor);
+        int pageLimit = resolvePageLimit(limit);
+        return toPage(taskRepository.findDtoPageByUserId(userId, after.getCreatedAt(), after.getId(),
+            PageRequest.of(0, pageLimit + 1)), pageLimit);
+    }
 
-        Task task = taskRepository.findByIdAndUserId(id, user.getId())
+    @Transactional(readOnly = true)
+    public TaskDto getTaskById(Long id, Long userId) {
+        return taskRepository.findDtoByIdAndUserId(id, userId)
             .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
+    }
 
-        return convertToDto(task);
+    // ✏️ Toda escritura empieza por bump: la fila de versión del usuario queda bloqueada hasta el commit y
+    // serializa sus escrituras. Orden de bloqueo: versión, tasks, task_counters (el mismo que la reconciliación).
+    // La versión devuelta se graba como sync_version en las tareas y tombstones que escribe (orden de /changes).
+
+    public TaskDto createTask(TaskDto taskDto, Long userId) {
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Task savedTask = taskRepository.save(newTask(taskDto, userRepository.getReferenceById(userId), syncVersion));
+        taskCounterService.increment(userId, savedTask.getStatus(), savedTask.getPriority());
+        taskSearchIndex.onTaskSaved(userId, savedTask.getId(), savedTask.getTitle(), savedTask.getDescription());
+        return convertToDto(savedTask);
     }
 
-    public TaskDto createTask(TaskDto taskDto, String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    // 📦 BULK - validación previa de todos los elementos y escritura
+    // en lotes JDBC dentro de la transacción de la clase; los elementos inválidos no abortan al resto
+
+    public List<BulkItemResultDto<TaskDto>> createTasks(List<TaskDto> taskDtos, Long userId) {
+        checkBulkSize(taskDtos);
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        User user = userRepository.getReferenceById(userId);
+        List<BulkItemResultDto<TaskDto>> results = new ArrayList<>(Collections.nCopies(taskDtos.size(), null));
+        List<Integer> taskIndexes = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < taskDtos.size(); i++) {
+            String error = validationError(taskDtos.get(i), false);
+            if (error != null) {
+                results.set(i, BulkItemResultDto.failed(i, null, error));
+                continue;
+            }
+            tasks.add(newTask(taskDtos.get(i), user, syncVersion));
+            taskIndexes.add(i);
+        }
+
+        List<Task> savedTasks = taskRepository.saveAll(tasks);
+        TaskCounterService.Deltas deltas = new TaskCounterService.Deltas();
+        for (int j = 0; j < savedTasks.size(); j++) {
+            Task task = savedTasks.get(j);
+            int index = taskIndexes.get(j);
+            deltas.add(task.getStatus(), task.getPriority(), 1);
+            taskSearchIndex.onTaskSaved(userId, task.getId(), task.getTitle(), task.getDescription());
+            results.set(index, BulkItemResultDto.succeeded(index, task.getId(), convertToDto(task)));
+        }
+        taskCounterService.apply(userId, deltas);
+        return results;
+    }
 
-        Task task = new Task();
-        task.setTitle(taskDto.getTitle());
-        task.setDescription(taskDto.getDescription());
-        task.setStatus(taskDto.getStatus() != null ? taskDto.getStatus() : TaskStatus.TODO);
-        task.setPriority(taskDto.getPriority() != null ? taskDto.getPriority() : Priority.MEDIUM);
-        task.setDueDate(taskDto.getDueDate());
-        task.setUser(user);
+    /**
+     * Actualización parcial: solo se aplican los campos no nulos de cada elemento
+     */
+    public List<BulkItemResultDto<TaskDto>> updateTasks(List<TaskDto> patches, Long userId) {
+        checkBulkSize(patches);
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Set<Long> ids = patches.stream()
+            .filter(patch -> patch != null && patch.getId() != null)
+            .map(TaskDto::getId)
+            .collect(Collectors.toSet());
+        Map<Long, Task> tasksById = ids.isEmpty() ? Collections.emptyMap()
+            : taskRepository.findByUserIdAndIdIn(userId, ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+        List<BulkItemResultDto<TaskDto>> results = new ArrayList<>(Collections.nCopies(patches.size(), null));
+        Map<Integer, Task> updated = new LinkedHashMap<>();
+        TaskCounterService.Deltas deltas = new TaskCounterService.Deltas();
+        for (int i = 0; i < patches.size(); i++) {
+            TaskDto patch = patches.get(i);
+            if (patch == null || patch.getId() == null) {
+                results.set(i, BulkItemResultDto.failed(i, null, "El id de la tarea es requerido"));
+                continue;
+            }
+            String error = validationError(patch, true);
+            Task task = tasksById.get(patch.getId());
+            if (error != null || task == null) {
+                results.set(i, BulkItemResultDto.failed(i, patch.getId(), error != null ? error : "Tarea no encontrada"));
+                continue;
+            }
+
+            TaskStatus oldStatus = task.getStatus();
+            Priority oldPriority = task.getPriority();
+            if (patch.getTitle() != null) task.setTitle(patch.getTitle());
+            if (patch.getDescription() != null) task.setDescription(patch.getDescription());
+            if (patch.getStatus() != null) task.setStatus(patch.getStatus());
+            if (patch.getPriority() != null) task.setPriority(patch.getPriority());
+            if (patch.getDueDate() != null) task.setDueDate(patch.getDueDate());
+            task.setSyncVersion(syncVersion);
+            deltas.move(oldStatus, oldPriority, task.getStatus(), task.getPriority());
+            updated.put(i, task);
+        }
 
-        Task savedTask = taskRepository.save(task);
-        return convertToDto(savedTask);
+        // El flush envía los UPDATE agrupados y dispara la auditoría de updatedAt antes de armar los DTOs
+        taskRepository.flush();
+        updated.forEach((index, task) -> {
+            taskSearchIndex.onTaskSaved(userId, task.getId(), task.getTitle(), task.getDescription());
+            results.set(index, BulkItemResultDto.succeeded(index, task.getId(), convertToDto(task)));
+        });
+        taskCounterService.apply(userId, deltas);
+        return results;
     }
 
-    public TaskDto updateTask(Long id, TaskDto taskDto, String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    /**
+     * Borra en una sola sentencia; cada resultado exitoso lleva la tarea eliminada
+     */
+    public List<BulkItemResultDto<TaskDto>> deleteTasks(List<Long> ids, Long userId) {
+        checkBulkSize(ids);
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Set<Long> requestedIds = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Map<Long, TaskDto> existing = requestedIds.isEmpty() ? Collections.emptyMap()
+            : taskRepository.findDtosByUserIdAndIdIn(userId, requestedIds).stream()
+                .collect(Collectors.toMap(TaskDto::getId, Function.identity()));
+
+        TaskCounterService.Deltas deltas = new TaskCounterService.Deltas();
+        if (!existing.isEmpty()) {
+            taskRepository.deleteByUserIdAndIdIn(userId, existing.keySet());
+            LocalDateTime deletedAt = LocalDateTime.now();
+            List<TaskTombstone> tombstones = new ArrayList<>(existing.size());
+            for (TaskDto task : existing.values()) {
+                deltas.add(task.getStatus(), task.getPriority(), -1);
+                taskSearchIndex.onTaskDeleted(userId, task.getId());
+                tombstones.add(new TaskTombstone(userId, task.getId(), deletedAt, syncVersion));
+            }
+            taskTombstoneRepository.saveAll(tombstones);
+        }
 
-        Task task = taskRepository.findByIdAndUserId(id, user.getId())
+        List<BulkItemResultDto<TaskDto>> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BulkItemResultDto.failed(i, null, "El id de la tarea es requerido"));
+            } else if (existing.containsKey(id)) {
+                results.add(BulkItemResultDto.succeeded(i, id, existing.get(id)));
+            } else {
+                results.add(BulkItemResultDto.failed(i, id, "Tarea no encontrada"));
+            }
+        }
+        taskCounterService.apply(userId, deltas);
+        return results;
+    }
+
+    public TaskDto updateTask(Long id, TaskDto taskDto, Long userId) {
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Task task = taskRepository.findByIdAndUserId(id, userId)
             .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
 
+        TaskStatus oldStatus = task.getStatus();
+        Priority oldPriority = task.getPriority();
+
         task.setTitle(taskDto.getTitle());
         task.setDescription(taskDto.getDescription());
         task.setStatus(taskDto.getStatus());
         task.setPriority(taskDto.getPriority());
         task.setDueDate(taskDto.getDueDate());
+        task.setSyncVersion(syncVersion);
 
         Task updatedTask = taskRepository.save(task);
+        taskCounterService.move(userId, oldStatus, oldPriority, updatedTask.getStatus(), updatedTask.getPriority());
+        taskSearchIndex.onTaskSaved(userId, updatedTask.getId(), updatedTask.getTitle(), updatedTask.getDescription());
         return convertToDto(updatedTask);
     }
 
-    public void deleteTask(Long id, String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    /**
+     * DELETE acotado al usuario que devuelve en la misma sentencia la celda (status, priority) a descontar
+     */
+    public int deleteTask(Long id, Long userId) {
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        TaskStatusPriorityCountDto deleted = taskRepository.deleteReturning(id, userId)
+            .orElseThrow(() -> new ResourceNotFoundException("Tarea no encontrada"));
+
+        taskCounterService.decrement(userId, deleted.getStatus(), deleted.getPriority());
+        taskTombstoneRepository.save(new TaskTombstone(userId, id, LocalDateTime.now(), syncVersion));
+        taskSearchIndex.onTaskDeleted(userId, id);
+        return (int) deleted.getCount();
+    }
 
-        Task task = taskRepository.findByIdAndUserId(id, user.getId())
-            .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
+    @Transactional(readOnly = true)
+    public List<TaskDto> getUserTasksByStatus(Long userId, TaskStatus status) {
+        return taskRepository.findDtosByUserIdAndStatus(userId, status);
+    }
 
-        taskRepository.delete(task);
+    @Transactional(readOnly = true)
+    public List<TaskDto> getUserTasksByPriority(Long userId, Priority priority) {
+        return taskRepository.findDtosByUserIdAndPriority(userId, priority);
     }
 
-    public List<TaskDto> getUserTasksByStatus(String username, TaskStatus status) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getUserTasksByStatusPage(Long userId, TaskStatus status,
+                                                           String cursor, Integer limit) {
+        TaskCursor after = TaskCursor.decode(cursor);
+        int pageLimit = resolvePageLimit(limit);
+        return toPage(taskRepository.findDtoPageByUserIdAndStatus(userId, status, after.getCreatedAt(),
+            after.getId(), PageRequest.of(0, pageLimit + 1)), pageLimit);
+    }
 
-        return taskRepository.findByUserIdAndStatus(user.getId(), status).stream()
-            .map(this::convertToDto)
-            .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPageDto<TaskDto> getUserTasksByPriorityPage(Long userId, Priority priority,
+                                                             String cursor, Integer limit) {
+        TaskCursor after = TaskCursor.decode(cursor);
+        int pageLimit = resolvePageLimit(limit);
+        return toPage(taskRepository.findDtoPageByUserIdAndPriority(userId, priority, after.getCreatedAt(),
+            after.getId(), PageRequest.of(0, pageLimit + 1)), pageLimit);
+    }
+
+    /**
+     * Delta desde la marca del cliente: tareas creadas o modificadas y tareas eliminadas, en orden de commit.
+     * Sin marca, o con una anterior a la retención de tombstones, se recorre todo (fullResync).
+     * Lee del primario: una réplica retrasada devolvería como nuevo lo que el cliente ya tiene. Es una
+     * lectura readOnly con indicación de ruta, así que sondear no vuelve sticky al usuario.
+     */
+    @Transactional(readOnly = true)
+    public TaskChangesDto getUserTaskChanges(Long userId, String since, Integer limit) {
+        ReplicaRoutingDataSource.readFromPrimary();
+        LocalDateTime now = LocalDateTime.now();
+        // Todo lo escrito hasta untilVersion está confirmado, así que las dos lecturas ven lo mismo;
+        // lo que se confirme después tendrá una versión mayor y entra en la próxima llamada
+        long untilVersion = taskCollectionVersionService.currentVersion(userId);
+        TaskSyncWatermark after = TaskSyncWatermark.decode(since);
+        if (after == null || after.getIssuedAt().isBefore(now.minusDays(tombstoneRetentionDays))) {
+            after = TaskSyncWatermark.resyncFrom(untilVersion, now);
+        }
+        int pageLimit = resolvePageLimit(limit);
+
+        List<TaskDto> rows = taskRepository.findChangedDtosByUserId(userId, after.getSyncVersion(), after.getId(),
+            untilVersion, PageRequest.of(0, pageLimit + 1));
+        // En una resincronización solo importan los borrados posteriores a su inicio: tareas que el cliente
+        // pudo recibir en una página anterior. Los de antes los cubre el reemplazo de su copia.
+        boolean beforeResyncStart = after.isResync() && after.getSyncVersion() <= after.getResyncFrom();
+        List<TaskTombstoneDto> tombstones = taskTombstoneRepository.findDtosByUserIdAfter(userId,
+            beforeResyncStart ? after.getResyncFrom() : after.getSyncVersion(),
+            beforeResyncStart ? Long.MAX_VALUE : after.getId(), untilVersion, PageRequest.of(0, pageLimit + 1));
+
+        // Mezcla de las dos listas por (syncVersion, id) hasta completar la página
+        List<TaskDto> changed = new ArrayList<>();
+        List<TaskTombstoneDto> deleted = new ArrayList<>();
+        TaskSyncWatermark next = after;
+        int r = 0;
+        int d = 0;
+        while (changed.size() + deleted.size() < pageLimit && (r < rows.size() || d < tombstones.size())) {
+            TaskDto row = r < rows.size() ? rows.get(r) : null;
+            TaskTombstoneDto tombstone = d < tombstones.size() ? tombstones.get(d) : null;
+            if (tombstone == null || (row != null && (row.getSyncVersion() < tombstone.getSyncVersion()
+                    || (row.getSyncVersion().equals(tombstone.getSyncVersion()) && row.getId() < tombstone.getId())))) {
+                changed.add(row);
+                next = next.advanceTo(row.getSyncVersion(), row.getId());
+                r++;
+            } else {
+                deleted.add(tombstone);
+                next = next.advanceTo(tombstone.getSyncVersion(), tombstone.getId());
+                d++;
+            }
+        }
+        boolean hasMore = r < rows.size() || d < tombstones.size();
+
+        // Al ponerse al día la marca salta al final de untilVersion; nunca retrocede (p. ej. marca emitida por el
+        // primario y leída en una réplica algo retrasada)
+        if (!hasMore && untilVersion >= next.getSyncVersion()) {
+            next = TaskSyncWatermark.caughtUp(untilVersion, now);
+        }
+        return new TaskChangesDto(changed, deleted, next.encode(), hasMore, after.isResync());
     }
 
-    public List<TaskDto> getUserTasksByPriority(String username, Priority priority) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    @Transactional(readOnly = true)
+    public List<TaskDto> searchUserTasks(Long userId, String query) {
+        List<Long> rankedIds = taskSearchIndex.search(userId, query, maxSearchResults);
+        if (rankedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-        return taskRepository.findByUserIdAndPriority(user.getId(), priority).stream()
-            .map(this::convertToDto)
+        Map<Long, TaskDto> tasksById = taskRepository.findDtosByUserIdAndIdIn(userId, rankedIds).stream()
+            .collect(Collectors.toMap(TaskDto::getId, Function.identity()));
+        if (tasksById.size() < rankedIds.size()) {
+            // El índice apunta a tareas que ya no existen: se reconstruye en la próxima búsqueda
+            taskSearchIndex.invalidate(userId);
+        }
+
+        return rankedIds.stream()
+            .map(tasksById::get)
+            .filter(Objects::nonNull)
             .collect(Collectors.toList());
     }
 
-    public List<TaskDto> searchUserTasks(String username, String query) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    /**
+     * Combina estado, prioridad, rango de vencimiento, texto y orden en una sola consulta
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDto> queryUserTasks(Long userId, TaskQueryDto query) {
+        int limit = resolvePageLimit(query.getLimit());
+        if (query.getQ() == null || query.getQ().isBlank()) {
+            return taskRepository.queryDtos(userId, query, null, limit);
+        }
 
-        return taskRepository.findByUserIdAndTitleContainingIgnoreCase(user.getId(), query).stream()
-            .map(this::convertToDto)
+        List<Long> rankedIds = taskSearchIndex.search(userId, query.getQ(), maxTextCandidates);
+        if (rankedIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (query.getSort() != null) {
+            return taskRepository.queryDtos(userId, query, rankedIds, limit);
+        }
+
+        // Orden por relevancia: se filtra en SQL y se reordena según el ranking del índice
+        Map<Long, TaskDto> tasksById = taskRepository.queryDtos(userId, query, rankedIds, rankedIds.size())
+            .stream()
+            .collect(Collectors.toMap(TaskDto::getId, Function.identity()));
+        return rankedIds.stream()
+            .map(tasksById::get)
+            .filter(Objects::nonNull)
+            .limit(limit)
             .collect(Collectors.toList());
     }
 
-    public TaskStatsDto getUserTaskStats(String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    @Transactional(readOnly = true)
+    public TaskStatsDto getUserTaskStats(Long userId) {
+        // Matriz status x priority desde los contadores materializados; vencidas y próximas
+        // a vencer dependen del reloj, así que se cuentan con dos rangos indexados sobre due_date
+        TaskStatsDto stats = buildStats(taskCounterService.getCounts(userId));
+
+        LocalDateTime now = LocalDateTime.now();
+        stats.setOverdueTasks(taskRepository.countByUserIdAndStatusInAndDueDateBefore(
+            userId, OPEN_STATUSES, now));
+        stats.setDueSoonTasks(taskRepository.countByUserIdAndStatusInAndDueDateBetween(
+            userId, OPEN_STATUSES, now, now.plusHours(dueSoonHours)));
+        return stats;
+    }
 
-        List<Task> tasks = taskRepository.findByUserId(user.getId());
-        
-        long totalTasks = tasks.size();
-        long todoTasks = tasks.stream().filter(t -> t.getStatus() == TaskStatus.TODO).count();
-        long inProgressTasks = tasks.stream().filter(t -> t.getStatus() == TaskStatus.IN_PROGRESS).count();
-        long doneTasks = tasks.stream().filter(t -> t.getStatus() == TaskStatus.DONE).count();
+    /**
+     * UPDATE de una sola columna que devuelve la tarea y su estado anterior: sin leerla antes ni cargar la entidad
+     */
+    public TaskDto updateTaskStatus(Long id, TaskStatus status, Long userId) {
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Optional<TaskQueryRepository.TaskStatusChange> change =
+            taskRepository.updateStatusReturning(id, userId, status, LocalDateTime.now(), syncVersion);
+        if (change.isEmpty()) {
+            // Ninguna fila: la tarea no es del usuario (404) o ya estaba en ese estado (se devuelve sin cambios)
+            return taskRepository.findDtoByIdAndUserId(id, userId)
+                .orElseThrow(() -> new ResourceNotFoundException("Tarea no encontrada"));
+        }
 
-        return new TaskStatsDto(totalTasks, todoTasks, inProgressTasks, doneTasks);
+        TaskDto task = change.get().task();
+        taskCounterService.move(userId, change.get().previousStatus(), task.getPriority(), status, task.getPriority());
+        return task;
     }
 
-    public TaskDto updateTaskStatus(Long id, TaskStatus status, String username) {
-        User user = userRepository.findByUsername(username)
-            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+    /**
+     * Mueve a un estado todas las tareas del usuario que cumplen el filtro con un único UPDATE.
+     * Las que ya están en ese estado no se tocan; limit y sort del filtro no aplican.
+     */
+    public TaskStatusMoveResultDto moveTasksToStatus(Long userId, TaskQueryDto filter, TaskStatus status) {
+        if (status == null) {
+            throw new RuntimeException("El estado destino es requerido");
+        }
+        long syncVersion = taskCollectionVersionService.bump(userId);
+        Collection<Long> candidateIds = null;
+        if (filter.getQ() != null && !filter.getQ().isBlank()) {
+            // Sin ranking que respetar: el texto debe resolverse completo o la operación quedaría a medias
+            List<Long> matchingIds = taskSearchIndex.search(userId, filter.getQ(), maxTextCandidates + 1);
+            if (matchingIds.size() > maxTextCandidates) {
+                throw new RuntimeException("El texto coincide con más de " + maxTextCandidates + " tareas, acote el filtro");
+            }
+            if (matchingIds.isEmpty()) {
+                return new TaskStatusMoveResultDto(status, 0);
+            }
+            candidateIds = matchingIds;
+        }
 
-        Task task = taskRepository.findByIdAndUserId(id, user.getId())
-            .orElseThrow(() -> new RuntimeException("Tarea no encontrada"));
+        List<TaskStatusPriorityCountDto> cells = taskRepository.countMovable(userId, filter, candidateIds, status);
+        int affected = taskRepository.moveToStatus(userId, filter, candidateIds, status, LocalDateTime.now(), syncVersion);
+
+        TaskStatusMoveResultDto result = new TaskStatusMoveResultDto(status, affected);
+        TaskCounterService.Deltas deltas = new TaskCounterService.Deltas();
+        long counted = 0;
+        for (TaskStatusPriorityCountDto cell : cells) {
+            deltas.add(cell.getStatus(), cell.getPriority(), -cell.getCount());
+            deltas.add(status, cell.getPriority(), cell.getCount());
+            result.getMovedFrom().merge(cell.getStatus(), cell.getCount(), Long::sum);
+            counted += cell.getCount();
+        }
+        if (counted == affected) {
+            taskCounterService.apply(userId, deltas);
+        } else {
+            // No debería ocurrir con las escrituras serializadas por la fila de versión: se recalculan desde tasks
+            logger.warn("Movimiento a {} del usuario {}: contadas {} filas, actualizadas {}",
+                status, userId, counted, affected);
+            taskCounterService.rebuild(userId);
+        }
+        return result;
+    }
 
-        task.setStatus(status);
-        Task updatedTask = taskRepository.save(task);
-        return convertToDto(updatedTask);
+    // Pliega las filas de contadores (a lo sumo |status| x |priority|) en la matriz completa con ceros explícitos
+    private TaskStatsDto buildStats(List<TaskStatusPriorityCountDto> rows) {
+        TaskStatsDto stats = new TaskStatsDto();
+        for (TaskStatus status : TaskStatus.values()) {
+            stats.getByStatus().put(status, 0L);
+            Map<Priority, Long> byPriority = new EnumMap<>(Priority.class);
+            for (Priority priority : Priority.values()) {
+                byPriority.put(priority, 0L);
+            }
+            stats.getStatusPriorityMatrix().put(status, byPriority);
+        }
+        for (Priority priority : Priority.values()) {
+            stats.getByPriority().put(priority, 0L);
+        }
+
+        long total = 0;
+        for (TaskStatusPriorityCountDto row : rows) {
+            total += row.getCount();
+            if (row.getStatus() != null) {
+                stats.getByStatus().merge(row.getStatus(), row.getCount(), Long::sum);
+                if (row.getPriority() != null) {
+                    stats.getStatusPriorityMatrix().get(row.getStatus()).merge(row.getPriority(), row.getCount(), Long::sum);
+                }
+            }
+            if (row.getPriority() != null) {
+                stats.getByPriority().merge(row.getPriority(), row.getCount(), Long::sum);
+            }
+        }
+
+        stats.setTotalTasks(total);
+        stats.setTodoTasks(stats.getByStatus().get(TaskStatus.TODO));
+        stats.setInProgressTasks(stats.getByStatus().get(TaskStatus.IN_PROGRESS));
+        stats.setInReviewTasks(stats.getByStatus().get(TaskStatus.IN_REVIEW));
+        stats.setDoneTasks(stats.getByStatus().get(TaskStatus.DONE));
+        stats.setCancelledTasks(stats.getByStatus().get(TaskStatus.CANCELLED));
+        return stats;
+    }
+
+    private Task newTask(TaskDto taskDto, User user, long syncVersion) {
+        Task task = new Task();
+        task.setTitle(taskDto.getTitle());
+        task.setDescription(taskDto.getDescription());
+        task.setStatus(taskDto.getStatus() != null ? taskDto.getStatus() : TaskStatus.TODO);
+        task.setPriority(taskDto.getPriority() != null ? taskDto.getPriority() : Priority.MEDIUM);
+        task.setDueDate(taskDto.getDueDate());
+        task.setUser(user);
+        task.setSyncVersion(syncVersion);
+        return task;
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("La operación masiva requiere al menos un elemento");
+        }
+        if (items.size() > maxBulkItems) {
+            throw new RuntimeException("La operación masiva admite como máximo " + maxBulkItems + " elementos");
+        }
+    }
+
+    // Primer mensaje de validación del elemento; en modo parcial se ignoran los campos no enviados
+    private String validationError(TaskDto taskDto, boolean partial) {
+        if (taskDto == null) {
+            return "Elemento vacío";
+        }
+        return validator.validate(taskDto).stream()
+            .filter(violation -> !partial || violation.getInvalidValue() != null)
+            .map(ConstraintViolation::getMessage)
+            .sorted()
+            .findFirst()
+            .orElse(null);
+    }
+
+    private int resolvePageLimit(Integer limit) {
+        if (limit == null) {
+            return defaultPageLimit;
+        }
+        if (limit < 1) {
+            throw new RuntimeException("El parámetro limit debe ser mayor que 0");
+        }
+        return Math.min(limit, maxPageLimit);
+    }
+
+    // Se consulta limit + 1 filas: la fila extra solo indica si existe una página siguiente
+    private CursorPageDto<TaskDto> toPage(List<TaskDto> rows, int limit) {
+        boolean hasMore = rows.size() > limit;
+        List<TaskDto> items = hasMore ? rows.subList(0, limit) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            TaskDto last = items.get(items.size() - 1);
+            nextCursor = new TaskCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new CursorPageDto<>(items, nextCursor, limit);
     }
 
+    // Se llama dentro de la transacción: task.getUser() es LAZY y sin open-in-view no hay sesión después
     private TaskDto convertToDto(Task task) {
-        TaskDto dto = new TaskDto();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setStatus(task.getStatus());
-        dto.setPriority(task.getPriority());
-        dto.setDueDate(task.getDueDate());
-        dto.setCreatedAt(task.getCreatedAt());
-        dto.setUpdatedAt(task.getUpdatedAt());
-        
-        if (task.getUser() != null) {
-            dto.setUserId(task.getUser().getId());
-            dto.setUserFullName(task.getUser().getFullName());
-        }
-        
-        return dto;
+        return TaskDto.from(task);
     }
 }
\ No newline at end of file
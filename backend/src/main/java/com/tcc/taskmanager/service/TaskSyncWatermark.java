@@ -0,0 +1,96 @@
+package com.tcc.taskmanager.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 🔄 Marca opaca de sincronización sobre (syncVersion, id) para GET /tasks/changes.
+ * Es la posición del último cambio entregado en orden de commit; la siguiente llamada devuelve lo posterior.
+ * issuedAt es cuándo empezó la cadena de páginas (para la retención de tombstones).
+ * resync marca las páginas de una resincronización completa y resyncFrom la versión de la colección
+ * cuando empezó: los borrados posteriores se entregan junto con las tareas.
+ */
+public final class TaskSyncWatermark {
+
+    private static final String SEPARATOR = "|";
+    private static final String RESYNC_FLAG = "R";
+
+    private final long syncVersion;
+    private final Long id;
+    private final LocalDateTime issuedAt;
+    private final boolean resync;
+    private final long resyncFrom;
+
+    public TaskSyncWatermark(long syncVersion, Long id, LocalDateTime issuedAt, boolean resync, long resyncFrom) {
+        this.syncVersion = syncVersion;
+        this.id = id;
+        this.issuedAt = issuedAt;
+        this.resync = resync;
+        this.resyncFrom = resyncFrom;
+    }
+
+    /**
+     * Anterior a cualquier tarea: una resincronización completa recorre todas desde aquí
+     */
+    public static TaskSyncWatermark resyncFrom(long collectionVersion, LocalDateTime issuedAt) {
+        return new TaskSyncWatermark(0L, 0L, issuedAt, true, collectionVersion);
+    }
+
+    /**
+     * Posterior a todo lo escrito hasta collectionVersion (incluida): la versión es común a toda la escritura
+     */
+    public static TaskSyncWatermark caughtUp(long collectionVersion, LocalDateTime issuedAt) {
+        return new TaskSyncWatermark(collectionVersion, Long.MAX_VALUE, issuedAt, false, 0L);
+    }
+
+    /**
+     * Misma cadena de páginas, avanzada hasta el elemento (syncVersion, id)
+     */
+    public TaskSyncWatermark advanceTo(long syncVersion, Long id) {
+        return new TaskSyncWatermark(syncVersion, id, issuedAt, resync, resyncFrom);
+    }
+
+    public long getSyncVersion() { return syncVersion; }
+
+    public Long getId() { return id; }
+
+    public LocalDateTime getIssuedAt() { return issuedAt; }
+
+    public boolean isResync() { return resync; }
+
+    public long getResyncFrom() { return resyncFrom; }
+
+    public String encode() {
+        String raw = syncVersion + SEPARATOR + id + SEPARATOR + issuedAt
+            + (resync ? SEPARATOR + RESYNC_FLAG + SEPARATOR + resyncFrom : "");
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * null si el cliente no envía marca (primera sincronización) o si es del formato anterior por
+     * (updatedAt, id): en ambos casos corresponde una resincronización completa
+     */
+    public static TaskSyncWatermark decode(String watermark) {
+        if (watermark == null || watermark.isBlank()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(watermark), StandardCharsets.UTF_8)
+                .split("\\|");
+            if (parts.length >= 2 && parts.length <= 3 && parts[0].contains("T")) {
+                LocalDateTime.parse(parts[0]);
+                return null;
+            }
+            if ((parts.length != 3 && parts.length != 5) || (parts.length == 5 && !RESYNC_FLAG.equals(parts[3]))) {
+                throw new RuntimeException("Marca de sincronización inválida");
+            }
+            boolean resync = parts.length == 5;
+            return new TaskSyncWatermark(Long.parseLong(parts[0]), Long.parseLong(parts[1]),
+                LocalDateTime.parse(parts[2]), resync, resync ? Long.parseLong(parts[4]) : 0L);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new RuntimeException("Marca de sincronización inválida");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.repository.TaskTombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 🧹 Elimina los tombstones más antiguos que la retención configurada.
+ * Un cliente con una marca anterior a ese límite recibe fullResync en GET /tasks/changes.
+ */
+@Component
+public class TaskTombstonePurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskTombstonePurgeJob.class);
+
+    @Autowired
+    private TaskTombstoneRepository taskTombstoneRepository;
+
+    @Value("${tasks.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    @Scheduled(cron = "${tasks.sync.tombstone-purge-cron:0 0 4 * * *}")
+    @Transactional
+    public void purge() {
+        int purged = taskTombstoneRepository.deleteByDeletedAtBefore(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        logger.info("Tombstones de tareas eliminados por retención: {}", purged);
+    }
+}
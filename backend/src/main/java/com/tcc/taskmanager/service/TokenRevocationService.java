@@ -0,0 +1,79 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.RevokedToken;
+import com.tcc.taskmanager.repository.RevokedTokenRepository;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.security.JwtVerification;
+import com.tcc.taskmanager.security.TokenRevocationRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * 🚫 Revocación de access tokens por jti (logout y revocación forzada). Se persiste en revoked_tokens
+ * hasta la expiración del token y se registra en TokenRevocationRegistry, que es lo que consulta el filtro.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private TokenRevocationRegistry tokenRevocationRegistry;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    /**
+     * Revoca un token ya verificado hasta su propia expiración. Devuelve false si no se puede revocar
+     * individualmente (inválido, o emitido sin jti)
+     */
+    public boolean revoke(JwtVerification token) {
+        if (!token.isValid() || token.getTokenId() == null) {
+            return false;
+        }
+        revoke(token.getTokenId(), token.getUserId(), token.getExpiration().toInstant());
+        return true;
+    }
+
+    /**
+     * Revocación forzada solo con el jti: sin el token no se conoce su expiración, así que se guarda
+     * hasta la vida máxima de un access token emitido ahora
+     */
+    public void revoke(UUID tokenId) {
+        revoke(tokenId, null, Instant.now().plusMillis(jwtUtils.getJwtExpirationMs()));
+    }
+
+    private void revoke(UUID tokenId, Long userId, Instant expiresAt) {
+        if (tokenRevocationRegistry.isRevoked(tokenId)) {
+            return;
+        }
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId.toString(), userId,
+                LocalDateTime.ofInstant(expiresAt, ZoneId.systemDefault()), LocalDateTime.now()));
+        } catch (DataIntegrityViolationException e) {
+            // uk_revoked_tokens_jti: otra petición u otra instancia ya lo revocó
+            logger.debug("Token {} ya revocado", tokenId);
+        }
+        tokenRevocationRegistry.revoke(tokenId, expiresAt.toEpochMilli());
+    }
+
+    @Scheduled(cron = "${security.jwt.revocation.purge-cron:0 20 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
+        logger.info("Tokens revocados expirados eliminados: {}", purged);
+    }
+}
@@ -0,0 +1,24 @@
+package com.tcc.taskmanager.service;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 👤 Un usuario cambió (perfil, username o contraseña). Se publica dentro de la transacción de la
+ * escritura; los oyentes lo reciben tras el commit. Incluye el username anterior si se renombró.
+ */
+public class UserChangedEvent {
+
+    private final Long userId;
+    private final Set<String> usernames;
+
+    public UserChangedEvent(Long userId, String... usernames) {
+        this.userId = userId;
+        this.usernames = Arrays.stream(usernames).collect(Collectors.toUnmodifiableSet());
+    }
+
+    public Long getUserId() { return userId; }
+
+    public Set<String> getUsernames() { return usernames; }
+}
@@ -0,0 +1,43 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.User;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Locale;
+
+/**
+ * 🧱 Traduce violaciones de uk_users_username / uk_users_email a los mensajes de error del alta
+ */
+final class UserConstraintViolations {
+
+    static final String USERNAME_TAKEN = "El nombre de usuario ya está en uso";
+    static final String EMAIL_TAKEN = "El email ya está en uso";
+
+    private UserConstraintViolations() {}
+
+    /**
+     * Mensaje para la restricción violada, o null si la violación no es de unicidad de usuario
+     */
+    static String messageFor(DataIntegrityViolationException e) {
+        String violated = violatedConstraint(e).toLowerCase(Locale.ROOT);
+        if (violated.contains(User.UK_USERNAME)) {
+            return USERNAME_TAKEN;
+        }
+        if (violated.contains(User.UK_EMAIL)) {
+            return EMAIL_TAKEN;
+        }
+        return null;
+    }
+
+    // Nombre extraído por el dialecto de Hibernate; si no lo hay, el mensaje del driver (que lo incluye)
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName();
+            }
+        }
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null ? message : "";
+    }
+}
@@ -2,24 +2,38 @@ package com.tcc.taskmanager.service;
 
 import com.tcc.taskmanager.model.User;
 import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.UserPrincipal;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
-import java.util.Collection;
-import java.util.Collections;
-
+/**
+ * 👤 Carga de usuarios para Spring Security, cacheada por username (spring.cache.* en application.yml).
+ * Los usernames inexistentes no se cachean: la excepción se propaga y la próxima búsqueda vuelve a users.
+ */
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
 
+    public static final String USER_DETAILS_CACHE = "userDetails";
+
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Override
+    @Cacheable(USER_DETAILS_CACHE)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
             .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
@@ -27,77 +41,17 @@ public class UserDetailsServiceImpl implements UserDetailsService {
         return UserPrincipal.create(user);
     }
 
-    public static class UserPrincipal implements UserDetails {
-        private Long id;
-        private String username;
-        private String email;
-        private String password;
-        private Collection<? extends GrantedAuthority> authorities;
-
-        public UserPrincipal(Long id, String username, String email, String password, 
-                            Collection<? extends GrantedAuthority> authorities) {
-            this.id = id;
-            this.username = username;
-            this.email = email;
-            this.password = password;
-            this.authorities = authorities;
-        }
-
-        public static UserPrincipal create(User user) {
-            Collection<GrantedAuthority> authorities = Collections.singletonList(
-                new SimpleGrantedAuthority("ROLE_USER")
-            );
-
-            return new UserPrincipal(
-                user.getId(),
-                user.getUsername(),
-                user.getEmail(),
-                user.getPassword(),
-                authorities
-            );
-        }
-
-        @Override
-        public Collection<? extends GrantedAuthority> getAuthorities() {
-            return authorities;
-        }
-
-        @Override
-        public String getPassword() {
-            return password;
-        }
-
-        @Override
-        public String getUsername() {
-            return username;
-        }
-
-        @Override
-        public boolean isAccountNonExpired() {
-            return true;
-        }
-
-        @Override
-        public boolean isAccountNonLocked() {
-            return true;
-        }
-
-        @Override
-        public boolean isCredentialsNonExpired() {
-            return true;
-        }
-
-        @Override
-        public boolean isEnabled() {
-            return true;
-        }
-
-        public Long getId() {
-            return id;
-        }
-
-        public String getEmail() {
-            return email;
-        }
+    /**
+     * 🧹 Tras el commit de un cambio del usuario descarta sus entradas (username actual y anterior);
+     * sin transacción activa se aplica de inmediato
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        Cache cache = cacheManager.getCache(USER_DETAILS_CACHE);
+        if (cache == null) {
+            return;
+        }
+        event.getUsernames().forEach(cache::evict);
+        logger.debug("UserDetails invalidado para usuario {}: {}", event.getUserId(), event.getUsernames());
     }
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.BulkItemResultDto;
+import com.tcc.taskmanager.model.dto.RegisterRequestDto;
+import com.tcc.taskmanager.model.dto.UserProfileDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 👥 Alta masiva de cuentas (administración). Valida y deduplica la petición, hashea las contraseñas en el
+ * pool de BCrypt e inserta por bloques en lotes JDBC, una transacción por bloque. Antes de cada bloque
+ * descarta con una consulta los username/email existentes; si aun así un INSERT choca con las restricciones
+ * únicas (alta concurrente), ese bloque se reintenta fila a fila para fallar solo los elementos afectados.
+ */
+@Service
+public class UserProvisioningService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProvisioningService.class);
+
+    // SQL Server admite hasta 2100 parámetros por sentencia: acota el IN de la comprobación previa
+    private static final int MAX_IN_PARAMETERS = 1000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${users.bulk.max-items:5000}")
+    private int maxBulkItems;
+
+    @Value("${users.bulk.insert-chunk-size:500}")
+    private int insertChunkSize;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public List<BulkItemResultDto<UserProfileDto>> provisionUsers(List<RegisterRequestDto> requests) {
+        checkBulkSize(requests);
+        List<BulkItemResultDto<UserProfileDto>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            RegisterRequestDto request = requests.get(i);
+            String error = validationError(request);
+            if (error == null && !usernames.add(normalize(request.getUsername()))) {
+                error = "El nombre de usuario está repetido en la petición";
+            } else if (error == null && !emails.add(normalize(request.getEmail()))) {
+                error = "El email está repetido en la petición";
+            }
+            if (error != null) {
+                results.set(i, BulkItemResultDto.failed(i, null, error));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // Todo el trabajo de BCrypt antes de tocar la base de datos: si el pool está saturado no se inserta nada
+        List<String> hashes = passwordHashingService.encodeAll(
+            accepted.stream().map(i -> requests.get(i).getPassword()).toList());
+
+        int chunkSize = Math.max(1, Math.min(insertChunkSize, MAX_IN_PARAMETERS));
+        for (int from = 0; from < accepted.size(); from += chunkSize) {
+            int to = Math.min(from + chunkSize, accepted.size());
+            insertChunk(requests, accepted.subList(from, to), hashes.subList(from, to), results);
+        }
+
+        long created = results.stream().filter(BulkItemResultDto::isSuccess).count();
+        logger.info("Alta masiva: {} de {} usuarios creados", created, requests.size());
+        return results;
+    }
+
+    private void insertChunk(List<RegisterRequestDto> requests, List<Integer> indexes, List<String> hashes,
+                             List<BulkItemResultDto<UserProfileDto>> results) {
+        Set<String> existingUsernames = normalizeAll(userRepository.findExistingUsernames(
+            indexes.stream().map(i -> requests.get(i).getUsername()).toList()));
+        Set<String> existingEmails = normalizeAll(userRepository.findExistingEmails(
+            indexes.stream().map(i -> requests.get(i).getEmail()).toList()));
+
+        List<User> users = new ArrayList<>();
+        List<Integer> userIndexes = new ArrayList<>();
+        for (int j = 0; j < indexes.size(); j++) {
+            int index = indexes.get(j);
+            RegisterRequestDto request = requests.get(index);
+            if (existingUsernames.contains(normalize(request.getUsername()))) {
+                results.set(index, BulkItemResultDto.failed(index, null, UserConstraintViolations.USERNAME_TAKEN));
+            } else if (existingEmails.contains(normalize(request.getEmail()))) {
+                results.set(index, BulkItemResultDto.failed(index, null, UserConstraintViolations.EMAIL_TAKEN));
+            } else {
+                users.add(new User(request.getUsername(), request.getEmail(), hashes.get(j),
+                    request.getFirstName(), request.getLastName()));
+                userIndexes.add(index);
+            }
+        }
+        if (users.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                userRepository.saveAll(users);
+                userRepository.flush();
+            });
+            for (int k = 0; k < users.size(); k++) {
+                User user = users.get(k);
+                int index = userIndexes.get(k);
+                results.set(index, BulkItemResultDto.succeeded(index, user.getId(), UserService.convertToProfileDto(user)));
+            }
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("Bloque de alta masiva rechazado por restricción única, reintentando fila a fila");
+            for (int k = 0; k < users.size(); k++) {
+                results.set(userIndexes.get(k), insertOne(userIndexes.get(k), users.get(k)));
+            }
+        } finally {
+            // Las entidades del bloque ya no se necesitan: el contexto de persistencia no crece con la petición
+            entityManager.clear();
+        }
+    }
+
+    private BulkItemResultDto<UserProfileDto> insertOne(int index, User user) {
+        user.setId(null);
+        try {
+            User saved = userRepository.saveAndFlush(user);
+            return BulkItemResultDto.succeeded(index, saved.getId(), UserService.convertToProfileDto(saved));
+        } catch (DataIntegrityViolationException e) {
+            String message = UserConstraintViolations.messageFor(e);
+            return BulkItemResultDto.failed(index, null, message != null ? message : "No se pudo crear el usuario");
+        }
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new RuntimeException("La operación masiva requiere al menos un elemento");
+        }
+        if (items.size() > maxBulkItems) {
+            throw new RuntimeException("La operación masiva admite como máximo " + maxBulkItems + " elementos");
+        }
+    }
+
+    // Mismas reglas que POST /auth/register (anotaciones de RegisterRequestDto)
+    private String validationError(RegisterRequestDto request) {
+        if (request == null) {
+            return "Elemento vacío";
+        }
+        Set<ConstraintViolation<RegisterRequestDto>> violations = validator.validate(request);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    // users.username y users.email no distinguen mayúsculas con la intercalación por defecto de SQL Server
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> normalizeAll(List<String> values) {
+        return values.stream().map(UserProvisioningService::normalize).collect(Collectors.toSet());
+    }
+}
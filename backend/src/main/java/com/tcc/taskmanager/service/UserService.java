@@ -3,8 +3,10 @@ package com.tcc.taskmanager.service;
 import com.tcc.taskmanager.model.User;
 import com.tcc.taskmanager.model.dto.UserProfileDto;
 import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.TokenVersionRegistry;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,16 +21,29 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
-    public UserProfileDto getUserProfile(String username) {
-        User user = userRepository.findByUsername(username)
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    // El nombre del usuario viaja en cada TaskDto: cambiarlo invalida los ETag de sus listados
+    @Autowired
+    private TaskCollectionVersionService taskCollectionVersionService;
+
+    // Invalida la caché de UserDetails al confirmar la transacción (UserDetailsServiceImpl.onUserChanged)
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional(readOnly = true)
+    public UserProfileDto getUserProfile(Long userId) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         return convertToProfileDto(user);
     }
 
-    public UserProfileDto updateProfile(String currentUsername, UserProfileDto profileDto) {
-        User user = userRepository.findByUsername(currentUsername)
+    public UserProfileDto updateProfile(Long userId, UserProfileDto profileDto) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        String previousUsername = user.getUsername();
 
         // Validar si el nuevo username ya existe en otro usuario
         if (!user.getUsername().equals(profileDto.getUsername())) {
@@ -51,34 +66,44 @@ public class UserService {
         user.setPhone(profileDto.getPhone());
 
         User updatedUser = userRepository.save(user);
+        taskCollectionVersionService.bump(updatedUser.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(updatedUser.getId(), previousUsername, updatedUser.getUsername()));
         return convertToProfileDto(updatedUser);
     }
 
-    public void changePassword(String username, String oldPassword, String newPassword) {
-        User user = userRepository.findByUsername(username)
+    public void changePassword(Long userId, String oldPassword, String newPassword) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
 
         if (!passwordEncoder.matches(oldPassword, user.getPassword())) {
             throw new RuntimeException("Contraseña actual incorrecta");
         }
 
+        // Cambiar la contraseña revoca todos los tokens emitidos hasta ahora
         user.setPassword(passwordEncoder.encode(newPassword));
+        user.setTokenVersion(user.getTokenVersion() + 1);
         userRepository.save(user);
+        tokenVersionRegistry.onTokenVersionChanged(user.getId(), user.getTokenVersion());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), user.getUsername()));
     }
 
-    public User updateUserAndReturnEntity(String username, UserProfileDto profileDto) {
-        User user = userRepository.findByUsername(username)
+    public User updateUserAndReturnEntity(Long userId, UserProfileDto profileDto) {
+        User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        String previousUsername = user.getUsername();
 
         user.setUsername(profileDto.getUsername());
         user.setFirstName(profileDto.getFirstName());
         user.setLastName(profileDto.getLastName());
         user.setPhone(profileDto.getPhone());
         user = userRepository.save(user);
+        taskCollectionVersionService.bump(user.getId());
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), previousUsername, user.getUsername()));
         return user;
     }
 
-    private UserProfileDto convertToProfileDto(User user) {
+    // Sin estado: también lo usa el alta masiva (UserProvisioningService)
+    static UserProfileDto convertToProfileDto(User user) {
         UserProfileDto dto = new UserProfileDto();
         dto.setId(user.getId());
         dto.setUsername(user.getUsername());
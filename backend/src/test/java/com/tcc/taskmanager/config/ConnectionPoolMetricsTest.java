@@ -0,0 +1,127 @@
+package com.tcc.taskmanager.config;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.service.TaskService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 📊 Conexiones por petición: sin open-in-view la conexión se devuelve al materializar los DTOs, y cada
+ * préstamo queda en db.connection.wait / db.connection.hold con el patrón de la ruta que lo pidió.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConnectionPoolMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ConnectionPoolMetrics connectionPoolMetrics;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void openInViewIsDisabled() {
+        assertThat(applicationContext.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class)).isEmpty();
+    }
+
+    @Test
+    void connectionsAreTimedPerEndpointPattern() throws Exception {
+        User user = newUser(userRepository, "pool");
+        Long taskId = taskService.createTask(taskDto("Tarea"), user.getId()).getId();
+
+        mockMvc.perform(get("/tasks/" + taskId)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + jwtUtils.generateUserToken(user)))
+            .andExpect(status().isOk());
+
+        assertThat(endpointTimer("db.connection.hold", "/tasks/{id}")).isNotNull()
+            .satisfies(timer -> assertThat(timer.count()).isPositive());
+        assertThat(endpointTimer("db.connection.wait", "/tasks/{id}")).isNotNull()
+            .satisfies(timer -> assertThat(timer.count()).isPositive());
+        // Los préstamos fuera de una petición (el alta de arriba) van a "none"
+        assertThat(endpointTimer("db.connection.hold", "none")).isNotNull();
+    }
+
+    @Test
+    void saturationRaisesOneAlarmAndClearsWhenConnectionsReturn() throws Exception {
+        try (Connection warmUp = dataSource.getConnection()) {
+            assertThat(warmUp.isValid(1)).isTrue();
+        }
+        Gauge saturated = meterRegistry.get("db.pool.saturated").gauge();
+        Counter alarms = meterRegistry.get("db.pool.saturation.alarms").counter();
+        double alarmsBefore = alarms.count();
+
+        // 9 de 10 conexiones tomadas: utilización 0.9, el umbral por defecto
+        List<Connection> held = new ArrayList<>();
+        try {
+            for (int i = 0; i < 9; i++) {
+                held.add(dataSource.getConnection());
+            }
+            awaitPoolStatsRefresh();
+            connectionPoolMetrics.checkSaturation();
+            connectionPoolMetrics.checkSaturation();
+            assertThat(saturated.value()).isEqualTo(1);
+            assertThat(alarms.count()).isEqualTo(alarmsBefore + 1);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        awaitPoolStatsRefresh();
+        connectionPoolMetrics.checkSaturation();
+        assertThat(saturated.value()).isZero();
+        assertThat(alarms.count()).isEqualTo(alarmsBefore + 1);
+    }
+
+    // PoolStats de Hikari cachea los contadores del pool durante un segundo
+    private static void awaitPoolStatsRefresh() throws InterruptedException {
+        Thread.sleep(1_100);
+    }
+
+    private Timer endpointTimer(String name, String uri) {
+        return meterRegistry.find(name).tag("uri", uri).timer();
+    }
+}
@@ -0,0 +1,101 @@
+package com.tcc.taskmanager.config;
+
+import com.tcc.taskmanager.model.Role;
+import com.tcc.taskmanager.security.UserPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔀 Decisión de ruta por transacción: readOnly a la réplica, escrituras y lecturas con readFromPrimary()
+ * al primario, y solo las escrituras confirmadas vuelven sticky al usuario.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private static final long USER_ID = 7L;
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void createRouting() {
+        JdbcDataSource database = new JdbcDataSource();
+        database.setURL("jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(database);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (id INT PRIMARY KEY, beat_at TIMESTAMP NOT NULL)");
+
+        // Primario y réplica son la misma base: el latido se lee al instante y la réplica queda utilizable
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(jdbc, jdbc, Duration.ofSeconds(5));
+        monitor.check();
+        assertThat(monitor.isReplicaUsable()).isTrue();
+
+        routing = new ReplicaRoutingDataSource(database, database, monitor, Duration.ofSeconds(10), new SimpleMeterRegistry());
+        routing.afterPropertiesSet();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+            UserPrincipal.fromClaims(USER_ID, "ana", "ana@test.com", Role.USER, 0), null, List.of()));
+    }
+
+    @AfterEach
+    void clear() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionGoesToReplica() {
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+        commit();
+    }
+
+    @Test
+    void primaryHintRoutesOnlyItsOwnTransaction() {
+        begin(true);
+        ReplicaRoutingDataSource.readFromPrimary();
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        commit();
+
+        // La indicación no sobrevive a la transacción ni vuelve sticky al usuario
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.REPLICA);
+        commit();
+    }
+
+    @Test
+    void committedWriteMakesTheUserSticky() {
+        begin(false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        commit();
+
+        begin(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.Route.PRIMARY);
+        commit();
+    }
+
+    // Lo que hace el gestor de transacciones alrededor de un método @Transactional
+    private static void begin(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clear();
+    }
+}
@@ -0,0 +1,126 @@
+package com.tcc.taskmanager.controller;
+
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.service.TaskService;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 🏷️ GET condicionales: 200 con ETag, 304 mientras la colección no cambie (sin leer tasks) y 200 con un
+ * ETag nuevo tras una escritura. El ETag distingue usuario, ruta y parámetros (no su orden).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskControllerETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+
+    private String bearer;
+
+    private Long taskId;
+
+    @BeforeEach
+    void createUserWithTask() {
+        user = newUser(userRepository, "etag");
+        taskId = taskService.createTask(taskDto("Tarea"), user.getId()).getId();
+        bearer = "Bearer " + jwtUtils.generateUserToken(user);
+    }
+
+    @Test
+    void notModifiedUntilTheCollectionChanges() throws Exception {
+        MvcResult first = perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer));
+        assertThat(first.getResponse().getStatus()).isEqualTo(200);
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        SqlStatementRecorder.Recorded<MvcResult> notModified = SqlStatementRecorder.record(() ->
+            perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer).header(HttpHeaders.IF_NONE_MATCH, etag)));
+        assertThat(notModified.result().getResponse().getStatus()).isEqualTo(304);
+        assertThat(notModified.result().getResponse().getContentAsString()).isEmpty();
+        // Solo la versión de la colección: el 304 no lee tasks
+        assertThat(notModified.statements()).hasSize(1)
+            .allMatch(sql -> sql.toLowerCase(Locale.ROOT).contains("from task_collection_versions"));
+
+        mockMvc.perform(patch("/tasks/" + taskId + "/status").param("status", TaskStatus.DONE.name())
+                .header(HttpHeaders.AUTHORIZATION, bearer))
+            .andExpect(status().isOk());
+
+        MvcResult afterWrite = perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, etag));
+        assertThat(afterWrite.getResponse().getStatus()).isEqualTo(200);
+        assertThat(afterWrite.getResponse().getContentAsString()).contains(TaskStatus.DONE.name());
+        String newEtag = afterWrite.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(newEtag).isNotBlank().isNotEqualTo(etag);
+
+        MvcResult again = perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer)
+            .header(HttpHeaders.IF_NONE_MATCH, newEtag));
+        assertThat(again.getResponse().getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void etagDependsOnUserAndUrl() {
+        User other = newUser(userRepository, "etag");
+        String otherBearer = "Bearer " + jwtUtils.generateUserToken(other);
+
+        List<String> etags = List.of(
+            etag(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer)),
+            etag(get("/tasks/my?limit=2").header(HttpHeaders.AUTHORIZATION, bearer)),
+            etag(get("/tasks/my?limit=3").header(HttpHeaders.AUTHORIZATION, bearer)),
+            etag(get("/tasks").header(HttpHeaders.AUTHORIZATION, bearer)),
+            etag(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, otherBearer)));
+
+        assertThat(etags).doesNotHaveDuplicates();
+        // Mismos parámetros en otro orden: mismo recurso, mismo ETag
+        assertThat(etag(get("/tasks/query?status=TODO&priority=HIGH").header(HttpHeaders.AUTHORIZATION, bearer)))
+            .isEqualTo(etag(get("/tasks/query?priority=HIGH&status=TODO").header(HttpHeaders.AUTHORIZATION, bearer)));
+    }
+
+    private String etag(RequestBuilder request) {
+        MvcResult result = perform(request);
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        return result.getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private MvcResult perform(RequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
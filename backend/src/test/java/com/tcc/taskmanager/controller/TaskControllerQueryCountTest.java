@@ -0,0 +1,101 @@
+package com.tcc.taskmanager.controller;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.JwtUtils;
+import com.tcc.taskmanager.service.TaskService;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 🧮 Sentencias por petición autenticada: el usuario sale de los claims del JWT (UserPrincipal.getId()) y los
+ * servicios de tareas trabajan por id, así que las lecturas no buscan el usuario en users.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TaskControllerQueryCountTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private String bearer;
+
+    private Long taskId;
+
+    @BeforeEach
+    void createUserWithTasks() {
+        User user = newUser(userRepository, "count");
+        for (int i = 0; i < 3; i++) {
+            taskId = taskService.createTask(taskDto("Tarea " + i), user.getId()).getId();
+        }
+        bearer = "Bearer " + jwtUtils.generateUserToken(user);
+    }
+
+    @Test
+    void listingMyTasksRunsTwoStatementsAndNoUsersSelect() {
+        SqlStatementRecorder.Recorded<ResultActions> recorded = SqlStatementRecorder.record(() ->
+            perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, bearer)));
+
+        List<String> statements = lowerCase(recorded.statements());
+        // Versión de la colección (ETag) y la proyección de tareas con el usuario unido
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).contains("from task_collection_versions");
+        assertThat(statements.get(1)).contains("from tasks").contains("join users");
+        assertThat(statements).noneMatch(TaskControllerQueryCountTest::selectsFromUsers);
+    }
+
+    @Test
+    void readingOneTaskDoesNotSelectTheUser() {
+        List<String> statements = lowerCase(SqlStatementRecorder.record(() ->
+            perform(get("/tasks/" + taskId).header(HttpHeaders.AUTHORIZATION, bearer))).statements());
+
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(1)).contains("from tasks").contains("join users");
+        assertThat(statements).noneMatch(TaskControllerQueryCountTest::selectsFromUsers);
+    }
+
+    private ResultActions perform(RequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andExpect(status().is2xxSuccessful());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<String> lowerCase(List<String> statements) {
+        return statements.stream().map(sql -> sql.toLowerCase(Locale.ROOT)).toList();
+    }
+
+    // Una lectura cuya tabla principal es users (no el JOIN de la proyección de tareas)
+    private static boolean selectsFromUsers(String sql) {
+        return sql.matches("(?s)select .* from users\\b.*");
+    }
+}
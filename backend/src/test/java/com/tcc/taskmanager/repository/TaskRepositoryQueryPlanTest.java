@@ -0,0 +1,242 @@
+package com.tcc.taskmanager.repository;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🧭 Regresión de planes: cada finder de TaskRepository se ejecuta, se captura su SQL y se pasa por EXPLAIN
+ * en H2. Falla si tasks se recorre completa (tableScan) o si el plan deja de usar el índice declarado
+ * en Task para ese camino de acceso.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TaskRepositoryQueryPlanTest {
+
+    private static final int USERS = 4;
+    private static final int TASKS_PER_USER = 250;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Long userId;
+
+    private String taskUserForeignKey;
+
+    @BeforeAll
+    void createTasks() throws SQLException {
+        // Suficientes filas y estadísticas actualizadas para que el optimizador elija por coste y no por tabla vacía
+        List<Long> userIds = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>();
+            for (int u = 0; u < USERS; u++) {
+                User user = userRepository.save(new User("plan" + u, "plan" + u + "@test.com", "hash", "Plan", "User" + u));
+                List<Task> tasks = new ArrayList<>();
+                for (int i = 0; i < TASKS_PER_USER; i++) {
+                    Task task = new Task("Tarea " + i, "Descripción " + i, user);
+                    task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+                    task.setPriority(Priority.values()[i % Priority.values().length]);
+                    task.setDueDate(LocalDateTime.now().plusDays(i % 30));
+                    tasks.add(task);
+                }
+                taskRepository.saveAll(tasks);
+                ids.add(user.getId());
+            }
+            return ids;
+        });
+        userId = userIds.get(0);
+        try (Connection connection = dataSource.getConnection()) {
+            taskUserForeignKey = foreignKeyName(connection);
+            connection.createStatement().execute("ALTER TABLE tasks DROP CONSTRAINT " + taskUserForeignKey);
+            connection.createStatement().execute("ANALYZE");
+        }
+    }
+
+    // H2 respalda cada FK con un índice propio sobre (user_id) y el optimizador lo prefiere a los declarados.
+    // SQL Server no indexa las FK: mientras se miden los planes la FK de tasks.user_id no existe, y se restaura
+    // al terminar porque el contexto (y la base) se comparte con otros tests.
+    @AfterAll
+    void restoreForeignKey() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.createStatement().execute("ALTER TABLE tasks ADD CONSTRAINT " + taskUserForeignKey +
+                " FOREIGN KEY (user_id) REFERENCES users (id)");
+        }
+    }
+
+    private static String foreignKeyName(Connection connection) throws SQLException {
+        try (ResultSet rs = connection.createStatement().executeQuery(
+                "SELECT CONSTRAINT_NAME FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS " +
+                "WHERE TABLE_NAME = 'TASKS' AND CONSTRAINT_TYPE = 'FOREIGN KEY'")) {
+            assertThat(rs.next()).isTrue();
+            return rs.getString(1);
+        }
+    }
+
+    @Test
+    void findDtosByUserIdUsesUserCreatedIndex() {
+        assertTasksIndex(() -> taskRepository.findDtosByUserId(userId), "IDX_TASKS_USER_CREATED");
+    }
+
+    @Test
+    void findDtosByUserIdAndStatusUsesStatusIndex() {
+        assertTasksIndex(() -> taskRepository.findDtosByUserIdAndStatus(userId, TaskStatus.TODO),
+            "IDX_TASKS_USER_STATUS_CREATED", "IDX_TASKS_USER_STATUS_DUE");
+    }
+
+    @Test
+    void findDtosByUserIdAndPriorityUsesPriorityIndex() {
+        assertTasksIndex(() -> taskRepository.findDtosByUserIdAndPriority(userId, Priority.HIGH),
+            "IDX_TASKS_USER_PRIORITY_CREATED");
+    }
+
+    @Test
+    void findDtoByIdAndUserIdUsesPrimaryKey() {
+        assertTasksIndex(() -> taskRepository.findDtoByIdAndUserId(1L, userId), "PRIMARY_KEY");
+    }
+
+    @Test
+    void findDtoPageByUserIdUsesUserCreatedIndex() {
+        assertTasksIndex(() -> taskRepository.findDtoPageByUserId(userId, LocalDateTime.now().plusDays(1),
+            Long.MAX_VALUE, PageRequest.of(0, 51)), "IDX_TASKS_USER_CREATED");
+    }
+
+    @Test
+    void findDtoPageByUserIdAndStatusUsesStatusIndex() {
+        assertTasksIndex(() -> taskRepository.findDtoPageByUserIdAndStatus(userId, TaskStatus.DONE,
+            LocalDateTime.now().plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 51)),
+            "IDX_TASKS_USER_STATUS_CREATED", "IDX_TASKS_USER_STATUS_DUE");
+    }
+
+    @Test
+    void findDtoPageByUserIdAndPriorityUsesPriorityIndex() {
+        assertTasksIndex(() -> taskRepository.findDtoPageByUserIdAndPriority(userId, Priority.LOW,
+            LocalDateTime.now().plusDays(1), Long.MAX_VALUE, PageRequest.of(0, 51)),
+            "IDX_TASKS_USER_PRIORITY_CREATED");
+    }
+
+    @Test
+    void findChangedDtosByUserIdUsesSyncIndex() {
+        assertTasksIndex(() -> taskRepository.findChangedDtosByUserId(userId, 0L, 0L, Long.MAX_VALUE,
+            PageRequest.of(0, 51)), "IDX_TASKS_USER_SYNC");
+    }
+
+    @Test
+    void dueDateCountsUseStatusDueIndex() {
+        EnumSet<TaskStatus> open = EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS, TaskStatus.IN_REVIEW);
+        LocalDateTime now = LocalDateTime.now();
+        assertTasksIndex(() -> taskRepository.countByUserIdAndStatusInAndDueDateBefore(userId, open, now),
+            "IDX_TASKS_USER_STATUS_DUE");
+        assertTasksIndex(() -> taskRepository.countByUserIdAndStatusInAndDueDateBetween(userId, open, now,
+            now.plusHours(48)), "IDX_TASKS_USER_STATUS_DUE");
+    }
+
+    @Test
+    void statsGroupByUsesAUserIndex() {
+        assertTasksIndex(() -> taskRepository.countByStatusAndPriority(userId),
+            "IDX_TASKS_USER_STATUS_DUE", "IDX_TASKS_USER_STATUS_CREATED", "IDX_TASKS_USER_PRIORITY_CREATED",
+            "IDX_TASKS_USER_CREATED", "IDX_TASKS_USER_SYNC");
+    }
+
+    // El finder debe emitir una sola sentencia sobre tasks y su plan debe acceder por uno de los índices esperados
+    private void assertTasksIndex(Runnable finder, String... expectedIndexes) {
+        List<String> statements = SqlStatementRecorder.record(finder);
+        List<String> taskQueries = statements.stream()
+            .filter(sql -> sql.toLowerCase(Locale.ROOT).matches("(?s)select .* from tasks .*"))
+            .toList();
+        assertThat(taskQueries).as("sentencias sobre tasks de %s", statements).hasSize(1);
+
+        String plan = explain(taskQueries.get(0));
+        String tasksAccess = tasksAccess(plan);
+        assertThat(tasksAccess).as("plan:%n%s", plan).doesNotContainIgnoringCase("tableScan");
+        assertThat(expectedIndexes)
+            .as("índice usado para tasks en el plan:%n%s", plan)
+            .anySatisfy(index -> assertThat(tasksAccess).containsIgnoringCase("PUBLIC." + index));
+    }
+
+    // El comentario que H2 pone tras "PUBLIC"."TASKS": /* PUBLIC.IDX_...: USER_ID = ?1 */ o /* PUBLIC.TASKS.tableScan */
+    private static String tasksAccess(String plan) {
+        int table = plan.indexOf("\"PUBLIC\".\"TASKS\"");
+        assertThat(table).as("plan sin acceso a tasks:%n%s", plan).isGreaterThanOrEqualTo(0);
+        int start = plan.indexOf("/*", table);
+        int end = plan.indexOf("*/", start);
+        return plan.substring(start, end + 2);
+    }
+
+    // EXPLAIN con parámetros de ejemplo según el tipo que H2 infiere para cada uno
+    private String explain(String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setObject(i, sampleValue(parameters.getParameterType(i)));
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                StringBuilder text = new StringBuilder();
+                while (plan.next()) {
+                    text.append(plan.getString(1)).append('\n');
+                }
+                return text.toString();
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("EXPLAIN falló para: " + sql, e);
+        }
+    }
+
+    private Object sampleValue(int sqlType) {
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return Timestamp.valueOf(LocalDateTime.now());
+            case Types.VARCHAR:
+            case Types.CHAR:
+            case Types.NVARCHAR:
+                return TaskStatus.TODO.name();
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return BigDecimal.TEN;
+            case Types.INTEGER:
+            case Types.SMALLINT:
+            case Types.TINYINT:
+                return 10;
+            default:
+                return userId;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.RevokedTokenRepository;
+import com.tcc.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 🚪 Tras el logout el filtro rechaza ese access token por su jti (401), sin afectar a otros tokens del usuario.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Test
+    void revokedTokenIsUnauthorized() throws Exception {
+        User user = newUser(userRepository, "filter");
+        String revoked = "Bearer " + jwtUtils.generateUserToken(user);
+        String other = "Bearer " + jwtUtils.generateUserToken(user);
+        mockMvc.perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, revoked)).andExpect(status().isOk());
+
+        mockMvc.perform(post("/auth/logout").header(HttpHeaders.AUTHORIZATION, revoked)).andExpect(status().isOk());
+
+        assertThat(revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now()))
+            .anyMatch(row -> user.getId().equals(row.getUserId()));
+        mockMvc.perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, revoked)).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/tasks/my").header(HttpHeaders.AUTHORIZATION, other)).andExpect(status().isOk());
+    }
+}
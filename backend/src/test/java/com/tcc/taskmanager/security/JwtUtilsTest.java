@@ -0,0 +1,93 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🎫 Caché de verificaciones de JwtUtils: acotada por tamaño sin dejar de admitir tokens nuevos al llenarse,
+ * y cada entrada vence con el exp de su token.
+ */
+class JwtUtilsTest {
+
+    private static final String SECRET = "VGVzdFNlY3JldEtleUZvclRhc2tNYW5hZ2VySnd0VXRpbHNDYWNoZVRlc3RzSFM1MTIwMjY=";
+
+    @Test
+    void verifiedTokensAreServedFromTheCache() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 10);
+        String token = jwtUtils.generateUserToken(principal(1L));
+
+        JwtVerification first = jwtUtils.verifyAndExtract(token);
+
+        assertThat(first.isValid()).isTrue();
+        assertThat(jwtUtils.verifyAndExtract(token)).isSameAs(first);
+        assertThat(jwtUtils.cachedVerifications()).isEqualTo(1);
+    }
+
+    @Test
+    void fullCacheStaysBoundedAndKeepsAdmittingHotTokens() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 2);
+        List<String> tokens = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            tokens.add(jwtUtils.generateUserToken(principal(id)));
+        }
+        tokens.forEach(jwtUtils::verifyAndExtract);
+        assertThat(jwtUtils.cachedVerifications()).isLessThanOrEqualTo(2);
+
+        // Un token nuevo que se usa de forma repetida termina en la caché aunque esté llena
+        String hot = jwtUtils.generateUserToken(principal(99L));
+        boolean cached = false;
+        for (int i = 0; i < 20 && !cached; i++) {
+            JwtVerification verification = jwtUtils.verifyAndExtract(hot);
+            jwtUtils.cachedVerifications();
+            cached = jwtUtils.verifyAndExtract(hot) == verification;
+        }
+        assertThat(cached).isTrue();
+        assertThat(jwtUtils.cachedVerifications()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void cachedVerificationExpiresWithTheToken() throws InterruptedException {
+        // exp se codifica en segundos: con 1,5 s de vida el token vence entre 0,5 y 1,5 s después de emitirse
+        JwtUtils jwtUtils = jwtUtils(1_500, 10);
+        String token = jwtUtils.generateUserToken(principal(1L));
+        assertThat(jwtUtils.verifyAndExtract(token).isValid()).isTrue();
+        assertThat(jwtUtils.cachedVerifications()).isEqualTo(1);
+
+        Thread.sleep(1_600);
+
+        assertThat(jwtUtils.cachedVerifications()).isZero();
+        assertThat(jwtUtils.verifyAndExtract(token).getStatus()).isEqualTo(JwtVerification.Status.EXPIRED);
+        assertThat(jwtUtils.cachedVerifications()).isZero();
+    }
+
+    @Test
+    void zeroMaxEntriesDisablesTheCache() {
+        JwtUtils jwtUtils = jwtUtils(60_000, 0);
+        String token = jwtUtils.generateUserToken(principal(1L));
+
+        JwtVerification first = jwtUtils.verifyAndExtract(token);
+
+        assertThat(jwtUtils.verifyAndExtract(token)).isNotSameAs(first);
+        assertThat(jwtUtils.cachedVerifications()).isZero();
+    }
+
+    private static JwtUtils jwtUtils(int expirationMs, int verifiedCacheMaxEntries) {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "refreshExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(jwtUtils, "verifiedCacheMaxEntries", verifiedCacheMaxEntries);
+        jwtUtils.init();
+        return jwtUtils;
+    }
+
+    private static UserPrincipal principal(long id) {
+        return UserPrincipal.fromClaims(id, "user" + id, "user" + id + "@test.com", Role.USER, 0L);
+    }
+}
@@ -0,0 +1,151 @@
+package com.tcc.taskmanager.security;
+
+import com.tcc.taskmanager.model.RevokedToken;
+import com.tcc.taskmanager.repository.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🚫 Registro de jti revocados: respuesta exacta pese al filtro de Bloom, barrido de los expirados,
+ * reconstrucción al superar expected-entries y recarga desde revoked_tokens.
+ */
+class TokenRevocationRegistryTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Test
+    void revokedTokenIsRevokedAndUnknownTokensAreNot() {
+        TokenRevocationRegistry registry = registry(new FakeRevokedTokens(), 1_000);
+        List<UUID> revoked = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            UUID tokenId = UUID.randomUUID();
+            registry.revoke(tokenId, System.currentTimeMillis() + HOUR_MS);
+            revoked.add(tokenId);
+        }
+
+        assertThat(revoked).allMatch(registry::isRevoked);
+        // Los falsos positivos del filtro de Bloom los descarta la tabla exacta
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(registry.isRevoked(UUID.randomUUID())).isFalse();
+        }
+        assertThat(registry.size()).isEqualTo(1_000);
+    }
+
+    @Test
+    void expiredEntriesAreEvictedBySweep() {
+        TokenRevocationRegistry registry = registry(new FakeRevokedTokens(), 100);
+        UUID expired = UUID.randomUUID();
+        UUID live = UUID.randomUUID();
+        registry.revoke(expired, System.currentTimeMillis() - 1);
+        registry.revoke(live, System.currentTimeMillis() + HOUR_MS);
+
+        registry.evictExpired();
+
+        assertThat(registry.isRevoked(expired)).isFalse();
+        assertThat(registry.isRevoked(live)).isTrue();
+        assertThat(registry.size()).isEqualTo(1);
+    }
+
+    @Test
+    void exceedingExpectedEntriesRebuildsWithTheLiveEntriesOnly() {
+        // expected-entries = 8: 16 huecos a media carga, la novena revocación ya no cabe
+        TokenRevocationRegistry registry = registry(new FakeRevokedTokens(), 8);
+        List<UUID> expired = new ArrayList<>();
+        List<UUID> live = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            expired.add(UUID.randomUUID());
+            registry.revoke(expired.get(i), System.currentTimeMillis() - 1);
+            live.add(UUID.randomUUID());
+            registry.revoke(live.get(i), System.currentTimeMillis() + HOUR_MS);
+        }
+        Object full = ReflectionTestUtils.getField(registry, "snapshot");
+
+        UUID ninth = UUID.randomUUID();
+        registry.revoke(ninth, System.currentTimeMillis() + HOUR_MS);
+
+        assertThat(ReflectionTestUtils.getField(registry, "snapshot")).isNotSameAs(full);
+        assertThat(registry.size()).isEqualTo(5);
+        assertThat(live).allMatch(registry::isRevoked);
+        assertThat(registry.isRevoked(ninth)).isTrue();
+        assertThat(expired).noneMatch(registry::isRevoked);
+    }
+
+    @Test
+    void rebuildGrowsPastExpectedEntriesWhenEverythingIsLive() {
+        TokenRevocationRegistry registry = registry(new FakeRevokedTokens(), 8);
+        List<UUID> revoked = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID tokenId = UUID.randomUUID();
+            registry.revoke(tokenId, System.currentTimeMillis() + HOUR_MS);
+            revoked.add(tokenId);
+        }
+
+        assertThat(registry.size()).isEqualTo(500);
+        assertThat(revoked).allMatch(registry::isRevoked);
+    }
+
+    @Test
+    void initAndRefreshLoadFromRevokedTokens() {
+        FakeRevokedTokens revokedTokens = new FakeRevokedTokens();
+        UUID loadedAtStartup = UUID.randomUUID();
+        revokedTokens.active.add(row(loadedAtStartup));
+
+        TokenRevocationRegistry registry = registry(revokedTokens, 100);
+        assertThat(registry.isRevoked(loadedAtStartup)).isTrue();
+
+        // Revocación hecha por otra instancia: llega con la recarga incremental
+        UUID revokedElsewhere = UUID.randomUUID();
+        revokedTokens.since.add(row(revokedElsewhere));
+        assertThat(registry.isRevoked(revokedElsewhere)).isFalse();
+
+        registry.refresh();
+
+        assertThat(registry.isRevoked(revokedElsewhere)).isTrue();
+        assertThat(registry.isRevoked(loadedAtStartup)).isTrue();
+        // Pide desde la última sincronización con margen, no la tabla entera
+        assertThat(revokedTokens.lastSince).isBefore(LocalDateTime.now().minusSeconds(59));
+        assertThat(revokedTokens.lastSince).isAfter(LocalDateTime.now().minusMinutes(2));
+    }
+
+    private static TokenRevocationRegistry registry(FakeRevokedTokens revokedTokens, int expectedEntries) {
+        TokenRevocationRegistry registry = new TokenRevocationRegistry();
+        ReflectionTestUtils.setField(registry, "revokedTokenRepository", revokedTokens.repository());
+        ReflectionTestUtils.setField(registry, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(registry, "expectedEntries", expectedEntries);
+        registry.init();
+        return registry;
+    }
+
+    private static RevokedToken row(UUID tokenId) {
+        return new RevokedToken(tokenId.toString(), 1L, LocalDateTime.now().plusHours(1), LocalDateTime.now());
+    }
+
+    // revoked_tokens en memoria: lo vigente para la carga inicial y lo revocado desde la última recarga
+    private static class FakeRevokedTokens {
+
+        private final List<RevokedToken> active = new ArrayList<>();
+        private final List<RevokedToken> since = new ArrayList<>();
+        private LocalDateTime lastSince;
+
+        RevokedTokenRepository repository() {
+            return (RevokedTokenRepository) Proxy.newProxyInstance(RevokedTokenRepository.class.getClassLoader(),
+                new Class<?>[] {RevokedTokenRepository.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "findByExpiresAtAfter" -> List.copyOf(active);
+                    case "findActiveRevokedSince" -> {
+                        lastSince = (LocalDateTime) args[0];
+                        yield List.copyOf(since);
+                    }
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.JwtResponseDto;
+import com.tcc.taskmanager.model.dto.LoginRequestDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.security.LoginAuthenticationProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 🔑 Login: en el pool de BCrypt solo corre matches; el JWT y el refresh token se emiten en el pool de
+ * continuaciones, y el re-hash por cambio de coste vuelve a pasar por el pool de BCrypt sin demorar la respuesta
+ * ni pisar una contraseña cambiada mientras esperaba.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class AuthServiceTest {
+
+    private static final String PASSWORD = "secreto123";
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private LoginAuthenticationProvider loginAuthenticationProvider;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void loginRunsOneMatchOnTheHashingPoolAndIssuesTokensOnTheCallbackPool() {
+        User user = newUser(userRepository, "auth", new BCryptPasswordEncoder(10).encode(PASSWORD));
+        double hashed = completed("passwordHashing");
+        double callbacks = completed("passwordHashingCallbacks");
+
+        JwtResponseDto response = authService.authenticateUser(new LoginRequestDto(user.getUsername(), PASSWORD)).join();
+
+        assertThat(response.getId()).isEqualTo(user.getId());
+        assertThat(response.getToken()).isNotBlank();
+        assertThat(response.getRefreshToken()).isNotBlank();
+        // El contador de tareas completadas se actualiza justo después de que la tarea completa el futuro
+        await(() -> completed("passwordHashing") == hashed + 1 && completed("passwordHashingCallbacks") == callbacks + 1);
+    }
+
+    @Test
+    void wrongPasswordFailsWithBadCredentials() {
+        User user = newUser(userRepository, "auth", new BCryptPasswordEncoder(10).encode(PASSWORD));
+
+        assertThatThrownBy(() -> authService.authenticateUser(new LoginRequestDto(user.getEmail(), "otra")).join())
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(BadCredentialsException.class);
+    }
+
+    @Test
+    void loginUpgradesALowerCostHashInTheBackground() {
+        User user = newUser(userRepository, "auth", new BCryptPasswordEncoder(4).encode(PASSWORD));
+
+        authService.authenticateUser(new LoginRequestDto(user.getUsername(), PASSWORD)).join();
+
+        await(() -> userRepository.findById(user.getId()).orElseThrow().getPassword().startsWith("$2a$10$"));
+        User upgraded = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(new BCryptPasswordEncoder().matches(PASSWORD, upgraded.getPassword())).isTrue();
+        assertThat(authService.authenticateUser(new LoginRequestDto(user.getUsername(), PASSWORD)).join().getToken())
+            .isNotBlank();
+    }
+
+    @Test
+    void pendingRehashDoesNotOverwriteAPasswordChangedInTheMeantime() {
+        User user = newUser(userRepository, "auth", new BCryptPasswordEncoder(4).encode(PASSWORD));
+        // Entidad leída en el login, antes del cambio de contraseña
+        User loggedIn = loginAuthenticationProvider.findUser(user.getUsername());
+        userService.changePassword(user.getId(), PASSWORD, "nueva456");
+        double callbacks = completed("passwordHashingCallbacks");
+
+        loginAuthenticationProvider.complete(loggedIn, PASSWORD, true);
+
+        await(() -> completed("passwordHashingCallbacks") == callbacks + 1);
+        User current = userRepository.findById(user.getId()).orElseThrow();
+        assertThat(new BCryptPasswordEncoder().matches("nueva456", current.getPassword())).isTrue();
+        assertThat(new BCryptPasswordEncoder().matches(PASSWORD, current.getPassword())).isFalse();
+        assertThat(current.getTokenVersion()).isEqualTo(loggedIn.getTokenVersion() + 1);
+    }
+
+    private double completed(String executor) {
+        return meterRegistry.get("executor.completed").tag("name", executor).functionCounter().count();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condición no alcanzada en 5 s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.exception.InvalidTokenException;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 🔄 Rotación de refresh tokens: cada token se consume una sola vez, la reutilización revoca la familia
+ * y renovar es una búsqueda por hash más un INSERT, sin leer la contraseña.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = newUser(userRepository, "refresh");
+    }
+
+    @Test
+    void rotateConsumesTheTokenAndIssuesTheNextOne() {
+        String first = refreshTokenService.issue(user.getId(), user.getTokenVersion());
+
+        SqlStatementRecorder.Recorded<RefreshTokenService.Rotation> recorded =
+            SqlStatementRecorder.record(() -> refreshTokenService.rotate(first));
+
+        RefreshTokenService.Rotation rotation = recorded.result();
+        assertThat(rotation.getUser().getId()).isEqualTo(user.getId());
+        assertThat(rotation.getRefreshToken()).isNotEqualTo(first);
+        // Lectura por hash (con el usuario unido), consumo condicionado y alta del siguiente token; el id sale
+        // de la secuencia con pooled optimizer, que solo se consulta de vez en cuando
+        List<String> statements = recorded.statements().stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .filter(sql -> !sql.contains("next value for"))
+            .toList();
+        assertThat(statements).hasSize(3);
+        assertThat(statements.get(0)).contains("from refresh_tokens").contains("token_hash=?").contains("join users");
+        assertThat(statements.get(1)).startsWith("update refresh_tokens");
+        assertThat(statements.get(2)).startsWith("insert into refresh_tokens");
+
+        assertThat(refreshTokenService.rotate(rotation.getRefreshToken()).getRefreshToken()).isNotBlank();
+    }
+
+    @Test
+    void reusingAConsumedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(user.getId(), user.getTokenVersion());
+        String second = refreshTokenService.rotate(first).getRefreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("ya utilizado");
+        // La revocación se confirmó aunque la petición falló: el sucesor legítimo tampoco sirve ya
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+            .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void tokensIssuedBeforeATokenVersionBumpAreRejected() {
+        String token = refreshTokenService.issue(user.getId(), user.getTokenVersion());
+        // Lo mismo que hace el cambio de contraseña
+        transactionTemplate.executeWithoutResult(status -> {
+            User managed = userRepository.findById(user.getId()).orElseThrow();
+            managed.setTokenVersion(managed.getTokenVersion() + 1);
+        });
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("revocado");
+    }
+
+    @Test
+    void disabledUserCannotRotateAndLosesTheFamily() {
+        String token = refreshTokenService.rotate(refreshTokenService.issue(user.getId(), user.getTokenVersion()))
+            .getRefreshToken();
+        setEnabled(false);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("deshabilitado");
+
+        // La revocación se confirmó: reactivar la cuenta no devuelve la validez al token
+        setEnabled(true);
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+            .isInstanceOf(InvalidTokenException.class)
+            .hasMessageContaining("ya utilizado");
+    }
+
+    @Test
+    void unknownTokenIsRejected() {
+        assertThatThrownBy(() -> refreshTokenService.rotate("desconocido"))
+            .isInstanceOf(InvalidTokenException.class);
+    }
+
+    @Test
+    void concurrentRotationsOfTheSameTokenLetOnlyOneThrough() throws Exception {
+        String token = refreshTokenService.issue(user.getId(), user.getTokenVersion());
+        int clients = 2;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<Boolean>> outcomes = new ArrayList<>();
+            Callable<Boolean> rotate = () -> {
+                start.await();
+                try {
+                    refreshTokenService.rotate(token);
+                    return true;
+                } catch (InvalidTokenException e) {
+                    return false;
+                }
+            };
+            for (int i = 0; i < clients; i++) {
+                outcomes.add(executor.submit(rotate));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> outcome : outcomes) {
+                succeeded += outcome.get() ? 1 : 0;
+            }
+            assertThat(succeeded).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void setEnabled(boolean enabled) {
+        transactionTemplate.executeWithoutResult(status ->
+            userRepository.findById(user.getId()).orElseThrow().setEnabled(enabled));
+    }
+}
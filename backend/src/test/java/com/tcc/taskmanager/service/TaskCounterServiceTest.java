@@ -0,0 +1,153 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.Task;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import com.tcc.taskmanager.repository.TaskCounterRepository;
+import com.tcc.taskmanager.repository.TaskRepository;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔢 Contadores sembrados en caliente: escrituras y lecturas concurrentes sobre un usuario sin contadores
+ * no pierden ajustes ni se bloquean entre sí, y la reconciliación no encuentra desvío.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskCounterServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskCollectionVersionService taskCollectionVersionService;
+
+    @Autowired
+    private TaskCounterRepository taskCounterRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void firstWriteSeedsCountersIncludingItself() {
+        Long userId = userWithUncountedTasks(10);
+
+        taskService.createTask(taskDto(TaskStatus.DONE, Priority.HIGH), userId);
+
+        assertThat(total(taskCounterService.getCounts(userId))).isEqualTo(11);
+        assertThat(taskCounterService.reconcile(userId)).isZero();
+    }
+
+    @Test
+    void reconcileLocksInWritersOrder() {
+        Long userId = userWithUncountedTasks(3);
+        taskCollectionVersionService.currentVersion(userId);
+
+        List<String> locks = SqlStatementRecorder.record(() -> taskCounterService.reconcile(userId)).statements().stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .filter(sql -> sql.contains(" for update"))
+            .toList();
+
+        assertThat(locks).hasSize(3);
+        assertThat(locks.get(0)).contains("from task_collection_versions");
+        assertThat(locks.get(1)).contains("from tasks");
+        assertThat(locks.get(2)).contains("from task_counters");
+    }
+
+    @Test
+    void concurrentWritesAndSeedingLoseNoAdjustment() throws Exception {
+        Long userId = userWithUncountedTasks(20);
+        // Cada hilo puede necesitar dos conexiones (crear la fila de versión va en REQUIRES_NEW): menos hilos que medio pool
+        int writers = 3;
+        int tasksPerWriter = 10;
+
+        ExecutorService pool = Executors.newFixedThreadPool(writers + 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        try {
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                results.add(pool.submit((Callable<Void>) () -> {
+                    start.await();
+                    for (int i = 0; i < tasksPerWriter; i++) {
+                        TaskStatus status = TaskStatus.values()[(writer + i) % TaskStatus.values().length];
+                        taskService.createTask(taskDto(status, Priority.values()[i % Priority.values().length]), userId);
+                    }
+                    return null;
+                }));
+            }
+            // Lectores que siembran y una reconciliación compitiendo con los escritores
+            results.add(pool.submit((Callable<Void>) () -> {
+                start.await();
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    taskCounterService.getCounts(userId);
+                }
+                return null;
+            }));
+            results.add(pool.submit((Callable<Void>) () -> {
+                start.await();
+                taskCounterService.reconcile(userId);
+                return null;
+            }));
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        List<TaskStatusPriorityCountDto> counts = taskCounterService.getCounts(userId);
+        assertThat(total(counts)).isEqualTo(20 + writers * tasksPerWriter);
+        assertThat(taskCounterService.reconcile(userId)).isZero();
+    }
+
+    // Tareas insertadas sin pasar por TaskService: el usuario queda sin contadores, como tras la migración
+    private Long userWithUncountedTasks(int tasks) {
+        return transactionTemplate.execute(status -> {
+            User user = newUser(userRepository, "counter");
+            for (int i = 0; i < tasks; i++) {
+                Task task = new Task("Tarea " + i, null, user);
+                task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+                task.setPriority(Priority.values()[i % Priority.values().length]);
+                taskRepository.save(task);
+            }
+            assertThat(taskCounterRepository.findByUserId(user.getId())).isEmpty();
+            return user.getId();
+        });
+    }
+
+    private static long total(List<TaskStatusPriorityCountDto> counts) {
+        return counts.stream().mapToLong(TaskStatusPriorityCountDto::getCount).sum();
+    }
+}
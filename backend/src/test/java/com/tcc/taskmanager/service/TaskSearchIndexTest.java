@@ -0,0 +1,153 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskSearchDocumentDto;
+import com.tcc.taskmanager.repository.TaskRepository;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔎 Índice de búsqueda por usuario: normalización de tokens, prefijos con AND, ranking por campo,
+ * solo escrituras confirmadas y retención acotada a max-indexed-users.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskSearchIndexTest {
+
+    @Autowired
+    private TaskSearchIndex taskSearchIndex;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = newUser(userRepository, "search").getId();
+    }
+
+    @Test
+    void tokenizeFoldsAccentsAndCase() {
+        assertThat(TaskSearchIndex.tokenize("Revisión DEL Módulo-Ñandú, v2.0"))
+            .containsExactly("revision", "del", "modulo", "nandu", "v2", "0");
+        assertThat(TaskSearchIndex.tokenize("  ")).isEmpty();
+        assertThat(TaskSearchIndex.tokenize(null)).isEmpty();
+    }
+
+    @Test
+    void everyTermMustMatchAsPrefix() {
+        Long both = create("Informe trimestral", null);
+        create("Informe anual", null);
+        create("Cierre trimestral", null);
+
+        assertThat(taskSearchIndex.search(userId, "INF trim", 10)).containsExactly(both);
+        assertThat(taskSearchIndex.search(userId, "informé", 10)).hasSize(2);
+        assertThat(taskSearchIndex.search(userId, "inf mensual", 10)).isEmpty();
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        Long inDescription = create("Reunión", "preparar el presupuesto");
+        Long inTitle = create("Presupuesto", "revisar con finanzas");
+
+        assertThat(taskSearchIndex.search(userId, "presupuesto", 10)).containsExactly(inTitle, inDescription);
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheIndex() {
+        Long updated = create("Original", null);
+        Long deleted = create("Conservada", null);
+        assertThat(taskSearchIndex.search(userId, "original", 10)).containsExactly(updated);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            taskService.updateTask(updated, task("Descartada", null), userId);
+            taskService.deleteTask(deleted, userId);
+            status.setRollbackOnly();
+        });
+
+        assertThat(taskSearchIndex.search(userId, "descartada", 10)).isEmpty();
+        assertThat(taskSearchIndex.search(userId, "original", 10)).containsExactly(updated);
+        assertThat(taskSearchIndex.search(userId, "conservada", 10)).containsExactly(deleted);
+    }
+
+    @Test
+    void committedUpdateIsSearchableWithoutRebuildingTheIndex() {
+        Long id = create("Borrador", null);
+        assertThat(taskSearchIndex.search(userId, "borrador", 10)).containsExactly(id);
+
+        taskService.updateTask(id, task("Definitiva", "lista"), userId);
+
+        SqlStatementRecorder.Recorded<List<Long>> recorded =
+            SqlStatementRecorder.record(() -> taskSearchIndex.search(userId, "definitiva lista", 10));
+        assertThat(recorded.result()).containsExactly(id);
+        assertThat(recorded.statements()).isEmpty();
+        assertThat(taskSearchIndex.search(userId, "borrador", 10)).isEmpty();
+    }
+
+    @Test
+    void leastRecentlyUsedIndexIsEvictedPastMaxIndexedUsers() {
+        List<Long> loads = new ArrayList<>();
+        TaskSearchIndex index = new TaskSearchIndex();
+        ReflectionTestUtils.setField(index, "taskRepository", taskRepository(loads));
+        ReflectionTestUtils.setField(index, "maxIndexedUsers", 2);
+        ReflectionTestUtils.setField(index, "indexTtlMinutes", 10L);
+
+        index.search(1L, "tarea", 10);
+        index.search(2L, "tarea", 10);
+        index.search(3L, "tarea", 10);
+        assertThat(loads).containsExactly(1L, 2L, 3L);
+
+        // El 1 salió al entrar el 3; el 2 sigue en memoria
+        index.search(2L, "tarea", 10);
+        assertThat(loads).containsExactly(1L, 2L, 3L);
+        index.search(1L, "tarea", 10);
+        assertThat(loads).containsExactly(1L, 2L, 3L, 1L);
+    }
+
+    private Long create(String title, String description) {
+        return taskService.createTask(task(title, description), userId).getId();
+    }
+
+    private static TaskDto task(String title, String description) {
+        TaskDto dto = taskDto(title, TaskStatus.TODO, Priority.MEDIUM);
+        dto.setDescription(description);
+        return dto;
+    }
+
+    // Solo la carga del índice: registra para qué usuario se pidió
+    private static TaskRepository taskRepository(List<Long> loads) {
+        return (TaskRepository) Proxy.newProxyInstance(TaskRepository.class.getClassLoader(),
+            new Class<?>[] {TaskRepository.class}, (proxy, method, args) -> {
+                if (!method.getName().equals("findSearchDocumentsByUserId")) {
+                    throw new UnsupportedOperationException(method.getName());
+                }
+                Long userId = (Long) args[0];
+                loads.add(userId);
+                return List.of(new TaskSearchDocumentDto(userId * 10, "Tarea " + userId, null));
+            });
+    }
+}
@@ -0,0 +1,143 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.BulkItemResultDto;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static com.tcc.taskmanager.support.TestFixtures.count;
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 📦 Operaciones masivas: validación previa por elemento, resultados en el orden de la petición y escritura
+ * agrupada (un INSERT preparado para todo el lote, un SELECT ... IN para los parches, un DELETE ... IN).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceBulkTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    private Long otherUserId;
+
+    @BeforeEach
+    void createUsers() {
+        userId = newUser(userRepository, "bulk").getId();
+        otherUserId = newUser(userRepository, "bulk").getId();
+    }
+
+    @Test
+    void createTasksBatchesInsertsAndReportsInvalidItems() {
+        List<TaskDto> items = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            items.add(taskDto("Tarea " + i, TaskStatus.TODO, Priority.HIGH));
+        }
+        items.add(5, taskDto("", TaskStatus.TODO, Priority.HIGH));
+
+        SqlStatementRecorder.Recorded<List<BulkItemResultDto<TaskDto>>> recorded =
+            SqlStatementRecorder.record(() -> taskService.createTasks(items, userId));
+
+        List<BulkItemResultDto<TaskDto>> results = recorded.result();
+        assertThat(results).hasSize(31);
+        assertThat(results.get(5).isSuccess()).isFalse();
+        assertThat(results.get(5).getError()).isNotBlank();
+        assertThat(results).filteredOn(BulkItemResultDto::isSuccess).hasSize(30)
+            .allSatisfy(result -> assertThat(result.getData().getTitle()).startsWith("Tarea "));
+        assertThat(results).extracting(BulkItemResultDto::getIndex).containsExactlyElementsOf(indexes(31));
+        // Una sentencia preparada que se ejecuta por lotes JDBC, no un INSERT por tarea
+        assertThat(statements(recorded.statements(), "insert into tasks")).hasSize(1);
+        assertThat(count(taskCounterService, userId, TaskStatus.TODO, Priority.HIGH)).isEqualTo(30);
+    }
+
+    @Test
+    void updateTasksLoadsPatchesInOneQueryAndSkipsForeignTasks() {
+        TaskDto mine = taskService.createTask(taskDto("Mía", TaskStatus.TODO, Priority.LOW), userId);
+        TaskDto other = taskService.createTask(taskDto("Ajena", TaskStatus.TODO, Priority.LOW), otherUserId);
+        TaskDto missingId = taskDto("Sin id", TaskStatus.DONE, null);
+
+        SqlStatementRecorder.Recorded<List<BulkItemResultDto<TaskDto>>> recorded = SqlStatementRecorder.record(() ->
+            taskService.updateTasks(Arrays.asList(patch(mine.getId(), TaskStatus.DONE), patch(other.getId(),
+                TaskStatus.DONE), missingId), userId));
+
+        List<BulkItemResultDto<TaskDto>> results = recorded.result();
+        assertThat(results).extracting(BulkItemResultDto::isSuccess).containsExactly(true, false, false);
+        assertThat(results.get(0).getData().getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(results.get(0).getData().getTitle()).isEqualTo("Mía");
+        assertThat(statements(recorded.statements(), "from tasks")).hasSize(1);
+        assertThat(taskService.getTaskById(other.getId(), otherUserId).getStatus()).isEqualTo(TaskStatus.TODO);
+        assertThat(count(taskCounterService, userId, TaskStatus.TODO, Priority.LOW)).isZero();
+        assertThat(count(taskCounterService, userId, TaskStatus.DONE, Priority.LOW)).isEqualTo(1);
+    }
+
+    @Test
+    void deleteTasksRunsOneDeleteAndReturnsTheDeletedTasks() {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(taskService.createTask(taskDto("Borrar " + i, TaskStatus.IN_PROGRESS, Priority.MEDIUM), userId).getId());
+        }
+        Long foreignId = taskService.createTask(taskDto("Ajena", TaskStatus.TODO, Priority.MEDIUM), otherUserId).getId();
+        List<Long> request = new ArrayList<>(ids);
+        request.add(foreignId);
+        request.add(null);
+
+        SqlStatementRecorder.Recorded<List<BulkItemResultDto<TaskDto>>> recorded =
+            SqlStatementRecorder.record(() -> taskService.deleteTasks(request, userId));
+
+        List<BulkItemResultDto<TaskDto>> results = recorded.result();
+        assertThat(results).hasSize(7);
+        assertThat(results.subList(0, 5)).allSatisfy(result -> {
+            assertThat(result.isSuccess()).isTrue();
+            assertThat(result.getData().getTitle()).startsWith("Borrar ");
+        });
+        assertThat(results.get(5).isSuccess()).isFalse();
+        assertThat(results.get(6).isSuccess()).isFalse();
+        assertThat(statements(recorded.statements(), "delete from tasks")).hasSize(1);
+        assertThat(count(taskCounterService, userId, TaskStatus.IN_PROGRESS, Priority.MEDIUM)).isZero();
+        assertThat(taskService.getTaskById(foreignId, otherUserId)).isNotNull();
+    }
+
+    private static List<String> statements(List<String> statements, String fragment) {
+        return statements.stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .filter(sql -> sql.contains(fragment))
+            .toList();
+    }
+
+    private static List<Integer> indexes(int size) {
+        List<Integer> indexes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            indexes.add(i);
+        }
+        return indexes;
+    }
+
+    private static TaskDto patch(Long id, TaskStatus status) {
+        TaskDto dto = new TaskDto();
+        dto.setId(id);
+        dto.setStatus(status);
+        return dto;
+    }
+}
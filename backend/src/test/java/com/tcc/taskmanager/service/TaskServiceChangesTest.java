@@ -0,0 +1,217 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.TaskChangesDto;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskTombstoneDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 🔄 GET /tasks/changes paginado por (syncVersion, id): un cliente que aplica las páginas por id termina
+ * con la misma copia que el servidor, también cuando hay escrituras entre página y página.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceChangesTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = newUser(userRepository, "sync").getId();
+    }
+
+    @Test
+    void deltaPagesMergeChangesAndTombstonesInCommitOrder() {
+        List<Long> ids = createTasks(6);
+        SyncClient client = new SyncClient();
+        client.syncAll(3);
+
+        taskService.deleteTask(ids.get(0), userId);
+        taskService.updateTaskStatus(ids.get(1), TaskStatus.DONE, userId);
+        taskService.deleteTask(ids.get(2), userId);
+        taskService.createTask(taskDto("Nueva"), userId);
+
+        TaskChangesDto first = client.next(2);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.isFullResync()).isFalse();
+        assertThat(first.getDeleted()).extracting(TaskTombstoneDto::getId).containsExactly(ids.get(0));
+        assertThat(first.getChanged()).extracting(TaskDto::getId).containsExactly(ids.get(1));
+
+        client.syncAll(2);
+        assertThat(client.tasks.keySet()).isEqualTo(serverIds());
+    }
+
+    @Test
+    void writeCommittedAfterAPollIsNotSkipped() throws Exception {
+        createTasks(2);
+        SyncClient client = new SyncClient();
+        client.syncAll(10);
+
+        // La escritura toma su versión y tarda en confirmar (más que cualquier margen de reloj); mientras tanto el cliente sincroniza
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> slow = writer.submit(() -> transactionTemplate.execute(status -> {
+                Long id = taskService.createTask(taskDto("Lenta"), userId).getId();
+                written.countDown();
+                await(release);
+                return id;
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Su versión aún no está confirmada: la marca devuelta no puede pasarla
+            assertThat(client.next(10).getChanged()).isEmpty();
+            release.countDown();
+            Long slowId = slow.get(10, TimeUnit.SECONDS);
+
+            assertThat(client.next(10).getChanged()).extracting(TaskDto::getId).containsExactly(slowId);
+            assertThat(client.tasks.keySet()).isEqualTo(serverIds());
+        } finally {
+            release.countDown();
+            writer.shutdownNow();
+        }
+    }
+
+    @Test
+    void tombstonesArePagedLikeTasks() {
+        List<Long> ids = createTasks(5);
+        SyncClient client = new SyncClient();
+        client.syncAll(10);
+
+        ids.forEach(id -> taskService.deleteTask(id, userId));
+
+        List<Integer> pageSizes = new ArrayList<>();
+        TaskChangesDto page;
+        do {
+            page = client.next(2);
+            pageSizes.add(page.getDeleted().size());
+        } while (page.isHasMore());
+        assertThat(pageSizes).containsExactly(2, 2, 1);
+        assertThat(client.tasks).isEmpty();
+    }
+
+    @Test
+    void deletesDuringAResyncAreDelivered() {
+        List<Long> ids = createTasks(5);
+        SyncClient client = new SyncClient();
+
+        TaskChangesDto first = client.next(2);
+        assertThat(first.isFullResync()).isTrue();
+        Long delivered = first.getChanged().get(0).getId();
+        taskService.deleteTask(delivered, userId);
+        taskService.deleteTask(ids.get(4), userId);
+
+        client.syncAll(2);
+        assertThat(client.tasks.keySet()).isEqualTo(serverIds()).doesNotContain(delivered);
+    }
+
+    @Test
+    void emptyPollKeepsTheWatermarkAndNothingIsRedelivered() {
+        createTasks(3);
+        SyncClient client = new SyncClient();
+        client.syncAll(10);
+
+        TaskChangesDto empty = client.next(10);
+        assertThat(empty.getChanged()).isEmpty();
+        assertThat(empty.getDeleted()).isEmpty();
+        assertThat(empty.isHasMore()).isFalse();
+    }
+
+    @Test
+    void legacyTimestampWatermarkTriggersFullResync() {
+        createTasks(2);
+        String legacy = Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((LocalDateTime.now() + "|0").getBytes(StandardCharsets.UTF_8));
+
+        TaskChangesDto changes = taskService.getUserTaskChanges(userId, legacy, 10);
+
+        assertThat(changes.isFullResync()).isTrue();
+        assertThat(changes.getChanged()).hasSize(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private List<Long> createTasks(int count) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            ids.add(taskService.createTask(taskDto("Tarea " + i), userId).getId());
+        }
+        return ids;
+    }
+
+    private Set<Long> serverIds() {
+        return taskService.getUserTasks(userId).stream().map(TaskDto::getId).collect(Collectors.toSet());
+    }
+
+    // Copia local de un cliente: aplica por id y reemplaza todo al terminar una resincronización
+    private class SyncClient {
+
+        private Map<Long, TaskDto> tasks = new HashMap<>();
+        private Map<Long, TaskDto> resync;
+        private String watermark;
+
+        TaskChangesDto next(int limit) {
+            TaskChangesDto page = taskService.getUserTaskChanges(userId, watermark, limit);
+            if (page.isFullResync() && resync == null) {
+                resync = new HashMap<>();
+            }
+            Map<Long, TaskDto> target = page.isFullResync() ? resync : tasks;
+            page.getChanged().forEach(task -> target.put(task.getId(), task));
+            page.getDeleted().forEach(tombstone -> target.remove(tombstone.getId()));
+            if (page.isFullResync() && !page.isHasMore()) {
+                tasks = resync;
+                resync = null;
+            }
+            watermark = page.getWatermark();
+            return page;
+        }
+
+        void syncAll(int limit) {
+            while (next(limit).isHasMore()) {
+                // sigue pidiendo con la nueva marca
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.tcc.taskmanager.service;
+
+import com.tcc.taskmanager.exception.ResourceNotFoundException;
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.support.SqlStatementRecorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+
+import static com.tcc.taskmanager.support.TestFixtures.count;
+import static com.tcc.taskmanager.support.TestFixtures.newUser;
+import static com.tcc.taskmanager.support.TestFixtures.taskDto;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ✏️ Cambio de estado y borrado por id: una sola sentencia sobre tasks que devuelve los valores anteriores,
+ * sin lectura previa, y 404 cuando la tarea no es del usuario.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class TaskServiceStatusWriteTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+
+    private Long otherUserId;
+
+    @BeforeEach
+    void createUsers() {
+        userId = newUser(userRepository, "status").getId();
+        otherUserId = newUser(userRepository, "status").getId();
+    }
+
+    @Test
+    void updateStatusReturnsChangedTaskFromTheUpdateItself() {
+        TaskDto created = taskService.createTask(taskDto(TaskStatus.TODO, Priority.HIGH), userId);
+
+        SqlStatementRecorder.Recorded<TaskDto> recorded =
+            SqlStatementRecorder.record(() -> taskService.updateTaskStatus(created.getId(), TaskStatus.DONE, userId));
+
+        TaskDto updated = recorded.result();
+        assertThat(updated.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(updated.getPriority()).isEqualTo(Priority.HIGH);
+        assertThat(updated.getVersion()).isEqualTo(created.getVersion() + 1);
+        assertThat(updated.getUserFullName()).isEqualTo(created.getUserFullName());
+        assertThat(tasksStatements(recorded.statements())).hasSize(1).allMatch(sql -> sql.contains("update tasks"));
+        assertThat(count(taskCounterService, userId, TaskStatus.TODO, Priority.HIGH)).isZero();
+        assertThat(count(taskCounterService, userId, TaskStatus.DONE, Priority.HIGH)).isEqualTo(1);
+    }
+
+    @Test
+    void updateStatusToCurrentStatusLeavesTaskUnchanged() {
+        TaskDto created = taskService.createTask(taskDto(TaskStatus.IN_PROGRESS, Priority.LOW), userId);
+
+        TaskDto unchanged = taskService.updateTaskStatus(created.getId(), TaskStatus.IN_PROGRESS, userId);
+
+        assertThat(unchanged.getVersion()).isEqualTo(created.getVersion());
+        assertThat(count(taskCounterService, userId, TaskStatus.IN_PROGRESS, Priority.LOW)).isEqualTo(1);
+    }
+
+    @Test
+    void updateStatusOfAnotherUsersTaskIsNotFound() {
+        TaskDto created = taskService.createTask(taskDto(TaskStatus.TODO, Priority.MEDIUM), userId);
+
+        assertThatThrownBy(() -> taskService.updateTaskStatus(created.getId(), TaskStatus.DONE, otherUserId))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(taskService.getTaskById(created.getId(), userId).getStatus()).isEqualTo(TaskStatus.TODO);
+    }
+
+    @Test
+    void deleteReturnsCountAndDecrementsTheDeletedCell() {
+        TaskDto created = taskService.createTask(taskDto(TaskStatus.IN_REVIEW, Priority.MEDIUM), userId);
+
+        SqlStatementRecorder.Recorded<Integer> recorded =
+            SqlStatementRecorder.record(() -> taskService.deleteTask(created.getId(), userId));
+
+        assertThat(recorded.result()).isEqualTo(1);
+        assertThat(tasksStatements(recorded.statements())).hasSize(1).allMatch(sql -> sql.contains("delete from tasks"));
+        assertThat(count(taskCounterService, userId, TaskStatus.IN_REVIEW, Priority.MEDIUM)).isZero();
+        assertThatThrownBy(() -> taskService.deleteTask(created.getId(), userId))
+            .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void deleteOfAnotherUsersTaskIsNotFound() {
+        TaskDto created = taskService.createTask(taskDto(TaskStatus.TODO, Priority.MEDIUM), userId);
+
+        assertThatThrownBy(() -> taskService.deleteTask(created.getId(), otherUserId))
+            .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(taskService.getTaskById(created.getId(), userId)).isNotNull();
+    }
+
+    // Sentencias que leen o escriben tasks (no las de task_collection_versions, task_counters ni tombstones)
+    private static List<String> tasksStatements(List<String> statements) {
+        return statements.stream()
+            .map(sql -> sql.toLowerCase(Locale.ROOT))
+            .filter(sql -> sql.matches("(?s).*\\btasks\\b.*"))
+            .toList();
+    }
+
+}
@@ -0,0 +1,47 @@
+package com.tcc.taskmanager.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 🧪 StatementInspector de Hibernate para los tests: guarda el SQL que prepara el hilo que está grabando.
+ * Solo ese hilo: los jobs programados que corren en paralelo no se cuelan en el conteo.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> RECORDING = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> statements = RECORDING.get();
+        if (statements != null) {
+            statements.add(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Ejecuta la acción y devuelve las sentencias que preparó Hibernate en este hilo, en orden
+     */
+    public static List<String> record(Runnable action) {
+        return record(() -> {
+            action.run();
+            return null;
+        }).statements();
+    }
+
+    public static <T> Recorded<T> record(Supplier<T> action) {
+        List<String> statements = new ArrayList<>();
+        RECORDING.set(statements);
+        try {
+            return new Recorded<>(action.get(), statements);
+        } finally {
+            RECORDING.remove();
+        }
+    }
+
+    public record Recorded<T>(T result, List<String> statements) {}
+}
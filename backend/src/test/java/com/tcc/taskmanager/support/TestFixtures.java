@@ -0,0 +1,59 @@
+package com.tcc.taskmanager.support;
+
+import com.tcc.taskmanager.model.Priority;
+import com.tcc.taskmanager.model.TaskStatus;
+import com.tcc.taskmanager.model.User;
+import com.tcc.taskmanager.model.dto.TaskDto;
+import com.tcc.taskmanager.model.dto.TaskStatusPriorityCountDto;
+import com.tcc.taskmanager.repository.UserRepository;
+import com.tcc.taskmanager.service.TaskCounterService;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🧪 Datos de prueba compartidos: usuarios con nombre y email únicos en todo el run (los contextos de Spring
+ * se reutilizan entre clases) y TaskDto mínimos para crear tareas.
+ */
+public final class TestFixtures {
+
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    private TestFixtures() {
+    }
+
+    public static User newUser(UserRepository userRepository, String prefix) {
+        return newUser(userRepository, prefix, "hash");
+    }
+
+    public static User newUser(UserRepository userRepository, String prefix, String passwordHash) {
+        int n = USERS.incrementAndGet();
+        return userRepository.save(new User(prefix + n, prefix + n + "@test.com", passwordHash, prefix, "User" + n));
+    }
+
+    public static TaskDto taskDto(String title) {
+        TaskDto dto = new TaskDto();
+        dto.setTitle(title);
+        return dto;
+    }
+
+    public static TaskDto taskDto(TaskStatus status, Priority priority) {
+        return taskDto("Tarea", status, priority);
+    }
+
+    public static TaskDto taskDto(String title, TaskStatus status, Priority priority) {
+        TaskDto dto = taskDto(title);
+        dto.setStatus(status);
+        dto.setPriority(priority);
+        return dto;
+    }
+
+    /**
+     * Valor de la celda (estado, prioridad) en los contadores del usuario; 0 si la celda no existe
+     */
+    public static long count(TaskCounterService taskCounterService, Long userId, TaskStatus status, Priority priority) {
+        return taskCounterService.getCounts(userId).stream()
+            .filter(cell -> cell.getStatus() == status && cell.getPriority() == priority)
+            .mapToLong(TaskStatusPriorityCountDto::getCount)
+            .sum();
+    }
+}